@@ -0,0 +1,53 @@
+package com.cloudintegrationms.domain.googledrive;
+
+import java.io.InputStream;
+import java.util.Map;
+
+public interface GoogleDriveService {
+    /**
+     * Obtiene la URL de autorización OAuth para Google Drive
+     * @param state Token de estado para prevenir ataques CSRF
+     * @return URL de autorización
+     */
+    String getAuthorizationUrl(String state);
+
+    /**
+     * Intercambia el código de autorización por tokens de acceso y de refresco
+     * @param code Código de autorización recibido de Google
+     * @return Mapa con access_token, refresh_token y expires_in
+     */
+    Map<String, String> exchangeCodeForTokens(String code);
+
+    /**
+     * Obtiene un nuevo token de acceso a partir del token de refresco
+     * @param refreshToken Token de refresco obtenido en la autorización
+     * @return Mapa con access_token y expires_in
+     */
+    Map<String, String> refreshAccessToken(String refreshToken);
+
+    /**
+     * Sube un archivo al Drive del usuario con el protocolo de subida reanudable, por fragmentos
+     * @param inputStream Stream del archivo a subir; se lee una sola vez y sin cargarlo entero en memoria
+     * @param size Tamaño total del archivo en bytes
+     * @param fileName nombre del archivo
+     * @param mimeType tipo MIME del archivo
+     * @param accessToken Token de acceso para la API de Google Drive
+     * @return ID del archivo en Google Drive
+     */
+    String uploadFile(InputStream inputStream, long size, String fileName, String mimeType, String accessToken);
+
+    /**
+     * Obtiene la URL de visualización de un archivo
+     * @param fileId ID del archivo en Google Drive
+     * @param accessToken Token de acceso para la API de Google Drive
+     * @return URL de visualización
+     */
+    String getFileViewUrl(String fileId, String accessToken);
+
+    /**
+     * Elimina un archivo de Google Drive
+     * @param fileId ID del archivo a eliminar
+     * @param accessToken Token de acceso para la API de Google Drive
+     */
+    void deleteFile(String fileId, String accessToken);
+}
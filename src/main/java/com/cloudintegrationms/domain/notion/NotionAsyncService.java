@@ -0,0 +1,46 @@
+package com.cloudintegrationms.domain.notion;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Variante no bloqueante de {@link NotionService} para las operaciones que llaman a la API de Notion.
+ * Los resultados se completan cuando llega la respuesta, sin retener un hilo mientras tanto.
+ */
+public interface NotionAsyncService {
+    /**
+     * Crea una nueva página en Notion
+     * @param parentId ID del espacio o página padre
+     * @param title Título de la página
+     * @param content Contenido de la página (en formato Notion)
+     * @param accessToken Token de acceso para la API de Notion
+     * @return ID de la página creada
+     */
+    CompletableFuture<String> createPage(String parentId, String title, String content, String accessToken);
+
+    /**
+     * Obtiene una página de Notion
+     * @param pageId ID de la página
+     * @param accessToken Token de acceso para la API de Notion
+     * @return Contenido de la página en formato JSON
+     */
+    CompletableFuture<Map<String, Object>> getPage(String pageId, String accessToken);
+
+    /**
+     * Obtiene una página de resultados de la búsqueda de páginas
+     * @param accessToken Token de acceso para la API de Notion
+     * @param query Texto a buscar en los títulos, o null para todas las páginas
+     * @param startCursor Cursor devuelto como next_cursor por la página anterior, o null para empezar
+     * @param pageSize Número de resultados por página (máximo 100)
+     * @return Resultados junto con next_cursor y has_more
+     */
+    CompletableFuture<NotionPageList> listPages(String accessToken, String query, String startCursor, int pageSize);
+
+    /**
+     * Verifica si el token de acceso es válido
+     * @param accessToken Token de acceso para la API de Notion
+     * @return true si el token es válido, false si Notion lo rechaza (401/403); los errores de red o del
+     * proveedor se propagan, porque no permiten saber si el token es válido
+     */
+    CompletableFuture<Boolean> validateToken(String accessToken);
+}
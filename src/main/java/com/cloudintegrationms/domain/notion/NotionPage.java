@@ -0,0 +1,22 @@
+package com.cloudintegrationms.domain.notion;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Campos de una página de Notion que usa el servicio; el resto de la respuesta se descarta al leerla.
+ */
+@Data
+@Builder
+public class NotionPage {
+    private String id;
+    private String url;
+    private String title;
+    @JsonProperty("created_time")
+    private Instant createdTime;
+    @JsonProperty("last_edited_time")
+    private Instant lastEditedTime;
+}
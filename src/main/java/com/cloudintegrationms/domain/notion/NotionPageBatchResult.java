@@ -0,0 +1,26 @@
+package com.cloudintegrationms.domain.notion;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Resultado de una página dentro de un lote; index es su posición en la petición original.
+ * Los fallos marcados como retryable pueden reenviarse tal cual en un nuevo lote. Una página PARTIAL
+ * ya existe en Notion con pageId, pero sin todo su contenido, y no debe reenviarse.
+ */
+@Data
+@Builder
+public class NotionPageBatchResult {
+    private int index;
+    private String pageId;
+    private Status status;
+    private String error;
+    private boolean retryable;
+
+    public enum Status {
+        CREATED,
+        PARTIAL,
+        FAILED,
+        INVALID
+    }
+}
@@ -0,0 +1,26 @@
+package com.cloudintegrationms.domain.notion;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de resultados de la búsqueda de Notion junto con el cursor para continuar.
+ * Se serializa con los mismos nombres de campo que la respuesta de /search de Notion.
+ */
+@Data
+@Builder
+public class NotionPageList {
+    private List<NotionPage> results;
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+    @JsonProperty("has_more")
+    private boolean hasMore;
+
+    @JsonProperty("object")
+    public String getObject() {
+        return "list";
+    }
+}
@@ -0,0 +1,12 @@
+package com.cloudintegrationms.domain.notion;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NotionPageRequest {
+    private String parentId;
+    private String title;
+    private String content;
+}
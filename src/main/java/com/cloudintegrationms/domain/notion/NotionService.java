@@ -2,6 +2,7 @@ package com.cloudintegrationms.domain.notion;
 
 import java.io.InputStream;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface NotionService {
     /**
@@ -37,16 +38,30 @@ public interface NotionService {
     Map<String, Object> getPage(String pageId, String accessToken);
     
     /**
-     * Obtiene la lista de páginas de un espacio de trabajo
+     * Obtiene una página de resultados de la búsqueda de páginas
      * @param accessToken Token de acceso para la API de Notion
-     * @return Lista de páginas
+     * @param query Texto a buscar en los títulos, o null para todas las páginas
+     * @param startCursor Cursor devuelto como next_cursor por la página anterior, o null para empezar
+     * @param pageSize Número de resultados por página (máximo 100)
+     * @return Resultados junto con next_cursor y has_more
      */
-    Map<String, Object> listPages(String accessToken);
+    NotionPageList listPages(String accessToken, String query, String startCursor, int pageSize);
+
+    /**
+     * Recorre todas las páginas del espacio de trabajo siguiendo next_cursor bajo demanda,
+     * entregando cada resultado al consumidor según llega sin acumular el listado completo
+     * @param accessToken Token de acceso para la API de Notion
+     * @param query Texto a buscar en los títulos, o null para todas las páginas
+     * @param pageSize Número de resultados por petición a Notion (máximo 100)
+     * @param consumer Receptor de cada página encontrada
+     */
+    void streamPages(String accessToken, String query, int pageSize, Consumer<NotionPage> consumer);
     
     /**
      * Verifica si el token de acceso es válido
      * @param accessToken Token de acceso para la API de Notion
-     * @return true si el token es válido, false en caso contrario
+     * @return true si el token es válido, false si Notion lo rechaza (401/403); los errores de red o del
+     * proveedor se propagan, porque no permiten saber si el token es válido
      */
     boolean validateToken(String accessToken);
 
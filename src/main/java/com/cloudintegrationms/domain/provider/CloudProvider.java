@@ -0,0 +1,33 @@
+package com.cloudintegrationms.domain.provider;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Proveedores de nube soportados; key es el identificador que aparece en las rutas
+ * y en la columna provider de las integraciones.
+ */
+public enum CloudProvider {
+    NOTION("notion"),
+    GOOGLE_DRIVE("google-drive");
+
+    private static final Map<String, CloudProvider> BY_KEY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(CloudProvider::key, Function.identity()));
+
+    private final String key;
+
+    CloudProvider(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Optional<CloudProvider> fromKey(String key) {
+        return key == null ? Optional.empty() : Optional.ofNullable(BY_KEY.get(key));
+    }
+}
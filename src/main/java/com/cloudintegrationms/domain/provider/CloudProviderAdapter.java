@@ -0,0 +1,40 @@
+package com.cloudintegrationms.domain.provider;
+
+import java.io.InputStream;
+
+/**
+ * Punto de extensión de un proveedor de nube para las rutas genéricas /api/v1/cloud/{provider}.
+ * Añadir un proveedor consiste en implementar esta interfaz como bean; las operaciones que
+ * el proveedor no admite lanzan UnsupportedOperationException.
+ */
+public interface CloudProviderAdapter {
+
+    CloudProvider provider();
+
+    /**
+     * Obtiene la URL de autorización OAuth del proveedor
+     * @param state Token de estado para prevenir ataques CSRF
+     */
+    String getAuthorizationUrl(String state);
+
+    /**
+     * Intercambia el código de autorización por las credenciales a guardar en la integración
+     * @param code Código de autorización recibido del proveedor
+     */
+    CloudProviderAuthorization completeAuthorization(String code);
+
+    /**
+     * URL a la que se redirige al usuario si la autorización falla
+     */
+    String getAuthFailureRedirect();
+
+    /**
+     * Sube un archivo con las credenciales activas del usuario
+     * @return ID del archivo en el proveedor
+     */
+    String uploadFile(String userId, InputStream inputStream, long size, String fileName, String mimeType);
+
+    String getFileViewUrl(String userId, String fileId);
+
+    void deleteFile(String userId, String fileId);
+}
@@ -0,0 +1,10 @@
+package com.cloudintegrationms.domain.provider;
+
+import java.time.Instant;
+
+/**
+ * Resultado de completar la autorización OAuth: credenciales a persistir, su caducidad
+ * (nula si no caducan) y URL de éxito para el usuario.
+ */
+public record CloudProviderAuthorization(String credentials, Instant expiresAt, String successRedirect) {
+}
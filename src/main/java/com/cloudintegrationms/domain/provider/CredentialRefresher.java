@@ -0,0 +1,17 @@
+package com.cloudintegrationms.domain.provider;
+
+import com.cloudintegrationms.server.domain.model.CloudIntegration;
+
+/**
+ * Renueva las credenciales de un proveedor cuyos tokens de acceso caducan. El refresco programado
+ * lo usa para renovarlas antes de que caduquen, fuera del camino de las peticiones de los usuarios.
+ */
+public interface CredentialRefresher {
+
+    CloudProvider provider();
+
+    /**
+     * Renueva las credenciales de la integración y guarda las nuevas junto con su caducidad
+     */
+    void refresh(CloudIntegration integration);
+}
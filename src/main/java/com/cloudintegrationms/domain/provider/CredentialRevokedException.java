@@ -0,0 +1,12 @@
+package com.cloudintegrationms.domain.provider;
+
+/**
+ * El proveedor rechaza el token de refresco (invalid_grant): el usuario revocó el acceso o la autorización
+ * caducó. Reintentar no sirve; la integración debe desactivarse hasta que el usuario vuelva a conectarla.
+ */
+public class CredentialRevokedException extends RuntimeException {
+
+    public CredentialRevokedException(String message) {
+        super(message);
+    }
+}
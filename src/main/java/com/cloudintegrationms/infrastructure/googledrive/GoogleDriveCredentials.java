@@ -0,0 +1,36 @@
+package com.cloudintegrationms.infrastructure.googledrive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Credenciales de Google Drive guardadas como JSON en el campo credentials de la integración:
+ * el token de acceso caduca en una hora y el de refresco permite renovarlo sin el usuario.
+ */
+record GoogleDriveCredentials(String accessToken, String refreshToken, Instant expiresAt) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    static GoogleDriveCredentials parse(String json) {
+        try {
+            return MAPPER.readValue(json, GoogleDriveCredentials.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Credenciales de Google Drive con formato inválido", e);
+        }
+    }
+
+    String toJson() {
+        try {
+            return MAPPER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar las credenciales de Google Drive", e);
+        }
+    }
+
+    boolean expiresWithin(Duration margin) {
+        return expiresAt != null && expiresAt.isBefore(Instant.now().plus(margin));
+    }
+}
@@ -0,0 +1,78 @@
+package com.cloudintegrationms.infrastructure.googledrive;
+
+import com.cloudintegrationms.domain.googledrive.GoogleDriveService;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.domain.provider.CloudProviderAdapter;
+import com.cloudintegrationms.domain.provider.CloudProviderAuthorization;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+
+/**
+ * Adaptador de Google Drive para las rutas genéricas. El cliente de Drive no se crea hasta la primera llamada.
+ */
+@Component
+@ConditionalOnProperty(name = "cloud-integration.providers.google-drive.enabled", havingValue = "true")
+public class GoogleDriveProviderAdapter implements CloudProviderAdapter {
+
+    private final ObjectProvider<GoogleDriveService> googleDriveService;
+    private final GoogleDriveTokenProvider tokenProvider;
+    private final String authSuccessRedirect;
+    private final String authFailureRedirect;
+
+    public GoogleDriveProviderAdapter(ObjectProvider<GoogleDriveService> googleDriveService,
+                                      GoogleDriveTokenProvider tokenProvider,
+                                      @Value("${google.auth.success.redirect}") String authSuccessRedirect,
+                                      @Value("${google.auth.failure.redirect}") String authFailureRedirect) {
+        this.googleDriveService = googleDriveService;
+        this.tokenProvider = tokenProvider;
+        this.authSuccessRedirect = authSuccessRedirect;
+        this.authFailureRedirect = authFailureRedirect;
+    }
+
+    @Override
+    public CloudProvider provider() {
+        return CloudProvider.GOOGLE_DRIVE;
+    }
+
+    @Override
+    public String getAuthorizationUrl(String state) {
+        return googleDriveService.getObject().getAuthorizationUrl(state);
+    }
+
+    @Override
+    public CloudProviderAuthorization completeAuthorization(String code) {
+        GoogleDriveCredentials credentials = GoogleDriveTokenProvider.toCredentials(
+                googleDriveService.getObject().exchangeCodeForTokens(code), null);
+        return new CloudProviderAuthorization(credentials.toJson(), credentials.expiresAt(), authSuccessRedirect);
+    }
+
+    @Override
+    public String getAuthFailureRedirect() {
+        return authFailureRedirect;
+    }
+
+    @Override
+    public String uploadFile(String userId, InputStream inputStream, long size, String fileName, String mimeType) {
+        return googleDriveService.getObject().uploadFile(inputStream, size, fileName, mimeType, accessToken(userId));
+    }
+
+    @Override
+    public String getFileViewUrl(String userId, String fileId) {
+        return googleDriveService.getObject().getFileViewUrl(fileId, accessToken(userId));
+    }
+
+    @Override
+    public void deleteFile(String userId, String fileId) {
+        googleDriveService.getObject().deleteFile(fileId, accessToken(userId));
+    }
+
+    private String accessToken(String userId) {
+        return tokenProvider.getAccessToken(userId)
+                .orElseThrow(() -> new IllegalStateException("Usuario no conectado con Google Drive"));
+    }
+}
@@ -0,0 +1,361 @@
+package com.cloudintegrationms.infrastructure.googledrive;
+
+import com.cloudintegrationms.domain.googledrive.GoogleDriveService;
+import com.cloudintegrationms.infrastructure.http.ProviderHttpException;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.domain.provider.CredentialRevokedException;
+import com.cloudintegrationms.infrastructure.http.UploadBufferPool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Service
+@Lazy
+@ConditionalOnProperty(name = "cloud-integration.providers.google-drive.enabled", havingValue = "true")
+public class GoogleDriveServiceImpl implements GoogleDriveService {
+
+    // Drive exige que todos los fragmentos salvo el último sean múltiplos de 256 KiB
+    static final int CHUNK_GRANULARITY = 256 * 1024;
+    private static final String DRIVE_SCOPE = "https://www.googleapis.com/auth/drive.file";
+    private static final MediaType JSON = MediaType.parse("application/json; charset=UTF-8");
+    private static final int RESUME_INCOMPLETE = 308;
+
+    @Value("${google.client.id}")
+    private String clientId;
+
+    @Value("${google.client.secret}")
+    private String clientSecret;
+
+    @Value("${google.redirect.uri}")
+    private String redirectUri;
+
+    private final OkHttpClient client;
+    private final OkHttpClient uploadClient;
+    private final String apiBaseUrl;
+    private final String authUrl;
+    private final String tokenUrl;
+    private final UploadBufferPool bufferPool;
+    private final int maxChunkRetries;
+    private final Duration retryBaseDelay;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Estado de una sesión de subida: bytes confirmados por Drive o, si ya terminó, el ID del archivo.
+     */
+    private record UploadStatus(long confirmed, String fileId) {
+    }
+
+    public GoogleDriveServiceImpl(
+            OkHttpClient providerHttpClient,
+            @Value("${cloud-integration.providers.google-drive.api-base-url:https://www.googleapis.com}") String apiBaseUrl,
+            @Value("${cloud-integration.providers.google-drive.auth-url:https://accounts.google.com/o/oauth2/v2/auth}") String authUrl,
+            @Value("${cloud-integration.providers.google-drive.token-url:https://oauth2.googleapis.com/token}") String tokenUrl,
+            @Value("${cloud-integration.providers.google-drive.upload.chunk-size:8MB}") DataSize chunkSize,
+            @Value("${cloud-integration.providers.google-drive.upload.chunk-timeout:5m}") Duration chunkTimeout,
+            @Value("${cloud-integration.providers.google-drive.upload.max-chunk-retries:5}") int maxChunkRetries,
+            @Value("${cloud-integration.providers.google-drive.upload.retry-base-delay:1s}") Duration retryBaseDelay,
+            @Value("${cloud-integration.providers.google-drive.upload.max-concurrent:16}") int maxConcurrentUploads,
+            @Value("${cloud-integration.providers.google-drive.upload.max-wait:0ms}") Duration maxUploadWait,
+            MeterRegistry meterRegistry) {
+        this.client = providerHttpClient;
+        // Cada fragmento es una petición larga; el resto de llamadas mantiene el timeout general
+        this.uploadClient = providerHttpClient.newBuilder().callTimeout(chunkTimeout).build();
+        this.apiBaseUrl = apiBaseUrl;
+        this.authUrl = authUrl;
+        this.tokenUrl = tokenUrl;
+        int chunkBytes = Math.max(CHUNK_GRANULARITY,
+                (int) (chunkSize.toBytes() / CHUNK_GRANULARITY) * CHUNK_GRANULARITY);
+        this.bufferPool = new UploadBufferPool(CloudProvider.GOOGLE_DRIVE.key(), chunkBytes,
+                maxConcurrentUploads, maxUploadWait, meterRegistry);
+        this.maxChunkRetries = maxChunkRetries;
+        this.retryBaseDelay = retryBaseDelay;
+    }
+
+    @Override
+    public String getAuthorizationUrl(String state) {
+        return HttpUrl.get(authUrl).newBuilder()
+                .addQueryParameter("client_id", clientId)
+                .addQueryParameter("redirect_uri", redirectUri)
+                .addQueryParameter("response_type", "code")
+                .addQueryParameter("scope", DRIVE_SCOPE)
+                // offline y consent para que Google devuelva siempre el token de refresco
+                .addQueryParameter("access_type", "offline")
+                .addQueryParameter("prompt", "consent")
+                .addQueryParameter("state", state)
+                .build()
+                .toString();
+    }
+
+    @Override
+    public Map<String, String> exchangeCodeForTokens(String code) {
+        try {
+            return requestTokens(new FormBody.Builder()
+                    .add("grant_type", "authorization_code")
+                    .add("code", code)
+                    .add("redirect_uri", redirectUri)
+                    .add("client_id", clientId)
+                    .add("client_secret", clientSecret)
+                    .build());
+        } catch (Exception e) {
+            log.error("Error al intercambiar código por tokens de Google Drive", e);
+            throw new RuntimeException("Error al intercambiar código por tokens de Google Drive", e);
+        }
+    }
+
+    @Override
+    public Map<String, String> refreshAccessToken(String refreshToken) {
+        try {
+            return requestTokens(new FormBody.Builder()
+                    .add("grant_type", "refresh_token")
+                    .add("refresh_token", refreshToken)
+                    .add("client_id", clientId)
+                    .add("client_secret", clientSecret)
+                    .build());
+        } catch (CredentialRevokedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error al refrescar el token de Google Drive", e);
+            throw new RuntimeException("Error al refrescar el token de Google Drive", e);
+        }
+    }
+
+    private Map<String, String> requestTokens(RequestBody form) throws IOException {
+        Request request = new Request.Builder().url(tokenUrl).post(form).build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                if (response.code() == 400 && "invalid_grant".equals(oauthError(response))) {
+                    throw new CredentialRevokedException("Google rechaza la autorización (invalid_grant)");
+                }
+                throw new ProviderHttpException(response.code(), "Error al obtener tokens de Google: " + response.code());
+            }
+            Map<String, Object> responseMap = objectMapper.readValue(response.body().byteStream(), Map.class);
+            Map<String, String> tokens = new HashMap<>();
+            tokens.put("access_token", (String) responseMap.get("access_token"));
+            if (responseMap.get("refresh_token") != null) {
+                tokens.put("refresh_token", (String) responseMap.get("refresh_token"));
+            }
+            if (responseMap.get("expires_in") != null) {
+                tokens.put("expires_in", String.valueOf(responseMap.get("expires_in")));
+            }
+            return tokens;
+        }
+    }
+
+    /**
+     * Código de error OAuth de una respuesta fallida del endpoint de tokens, o null si no lo trae.
+     */
+    private String oauthError(Response response) {
+        try {
+            Object error = objectMapper.readValue(response.body().byteStream(), Map.class).get("error");
+            return error instanceof String code ? code : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String uploadFile(InputStream inputStream, long size, String fileName, String mimeType, String accessToken) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Se requiere el tamaño del archivo para la subida reanudable");
+        }
+        // Se reserva antes de abrir la sesión para rechazar la subida sin haber leído nada del cliente
+        byte[] buffer = bufferPool.acquire();
+        try {
+            String sessionUri = startUploadSession(fileName, mimeType, size, accessToken);
+            // Solo se retiene en memoria el fragmento en curso, que es lo que puede haber que reenviar
+            long offset = 0;
+            while (true) {
+                int length = inputStream.readNBytes(buffer, 0, (int) Math.min(buffer.length, size - offset));
+                if (length == 0 && offset < size) {
+                    throw new IOException("El archivo terminó antes del tamaño indicado");
+                }
+                String fileId = uploadChunk(sessionUri, buffer, offset, length, size);
+                if (fileId != null) {
+                    return fileId;
+                }
+                offset += length;
+            }
+        } catch (Exception e) {
+            log.error("Error al subir archivo a Google Drive", e);
+            throw new RuntimeException("Error al subir archivo a Google Drive", e);
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private String startUploadSession(String fileName, String mimeType, long size, String accessToken) throws IOException {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("name", fileName);
+        if (mimeType != null) {
+            metadata.put("mimeType", mimeType);
+        }
+
+        Request.Builder request = new Request.Builder()
+                .url(apiBaseUrl + "/upload/drive/v3/files?uploadType=resumable&fields=id")
+                .header("Authorization", "Bearer " + accessToken)
+                .header("X-Upload-Content-Length", String.valueOf(size))
+                .post(RequestBody.create(objectMapper.writeValueAsBytes(metadata), JSON));
+        if (mimeType != null) {
+            request.header("X-Upload-Content-Type", mimeType);
+        }
+
+        try (Response response = client.newCall(request.build()).execute()) {
+            String location = response.header("Location");
+            if (!response.isSuccessful() || location == null) {
+                throw new ProviderHttpException(response.code(), "Error al iniciar la subida a Google Drive: " + response.code());
+            }
+            return location;
+        }
+    }
+
+    /**
+     * Envía un fragmento hasta que Drive lo confirma entero. Si la conexión cae o Drive responde con un
+     * error transitorio, consulta cuántos bytes llegó a guardar y reenvía solo el resto desde el buffer.
+     * @return ID del archivo si con este fragmento se completó la subida, o null en otro caso
+     */
+    private String uploadChunk(String sessionUri, byte[] buffer, long chunkStart, int length, long total) throws IOException {
+        int confirmedInChunk = 0;
+        int failures = 0;
+        boolean resync = false;
+        while (true) {
+            UploadStatus status;
+            boolean resynced = resync;
+            try {
+                status = resync
+                        ? queryUploadStatus(sessionUri, total)
+                        : sendRange(sessionUri, buffer, confirmedInChunk, length - confirmedInChunk, chunkStart + confirmedInChunk, total);
+                resync = false;
+            } catch (IOException e) {
+                if (!isRetryable(e) || ++failures > maxChunkRetries) {
+                    throw e;
+                }
+                log.warn("Fragmento de subida a Google Drive interrumpido en el byte {} de {}, reintento {}: {}",
+                        chunkStart + confirmedInChunk, total, failures, e.getMessage());
+                sleep(retryBaseDelay.multipliedBy(1L << (failures - 1)));
+                resync = true;
+                continue;
+            }
+
+            if (status.fileId() != null) {
+                return status.fileId();
+            }
+            long confirmed = status.confirmed() - chunkStart;
+            if (confirmed < 0) {
+                // El stream ya no permite volver atrás más allá del fragmento en curso
+                throw new IOException("Google Drive perdió bytes de fragmentos ya confirmados");
+            }
+            if (confirmed >= length) {
+                return null;
+            }
+            if (!resynced && confirmed <= confirmedInChunk && ++failures > maxChunkRetries) {
+                throw new IOException("Google Drive no confirma el fragmento en el byte " + (chunkStart + confirmed));
+            }
+            confirmedInChunk = (int) confirmed;
+        }
+    }
+
+    private UploadStatus sendRange(String sessionUri, byte[] buffer, int offset, int length, long start, long total) throws IOException {
+        String contentRange = length > 0
+                ? "bytes " + start + "-" + (start + length - 1) + "/" + total
+                : "bytes */" + total;
+        Request request = new Request.Builder()
+                .url(sessionUri)
+                .header("Content-Range", contentRange)
+                .put(RequestBody.create(buffer, null, offset, length))
+                .build();
+        try (Response response = uploadClient.newCall(request).execute()) {
+            return toUploadStatus(response);
+        }
+    }
+
+    private UploadStatus queryUploadStatus(String sessionUri, long total) throws IOException {
+        Request request = new Request.Builder()
+                .url(sessionUri)
+                .header("Content-Range", "bytes */" + total)
+                .put(RequestBody.create(new byte[0], null))
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            return toUploadStatus(response);
+        }
+    }
+
+    private UploadStatus toUploadStatus(Response response) throws IOException {
+        if (response.code() == RESUME_INCOMPLETE) {
+            // Range: bytes=0-N indica el último byte guardado; sin cabecera aún no hay nada
+            String range = response.header("Range");
+            long confirmed = range == null ? 0 : Long.parseLong(range.substring(range.lastIndexOf('-') + 1)) + 1;
+            return new UploadStatus(confirmed, null);
+        }
+        if (response.isSuccessful()) {
+            Map<String, Object> file = objectMapper.readValue(response.body().byteStream(), Map.class);
+            return new UploadStatus(-1, (String) file.get("id"));
+        }
+        throw new ProviderHttpException(response.code(), "Error en la subida a Google Drive: " + response.code());
+    }
+
+    /**
+     * 404 y 410 indican que la sesión de subida caducó y, como el resto de 4xx, no se resuelven reintentando.
+     */
+    private static boolean isRetryable(IOException error) {
+        return !(error instanceof ProviderHttpException httpError) || !httpError.isClientError();
+    }
+
+    private static void sleep(Duration delay) throws InterruptedIOException {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Subida a Google Drive interrumpida");
+        }
+    }
+
+    @Override
+    public String getFileViewUrl(String fileId, String accessToken) {
+        Request request = new Request.Builder()
+                .url(apiBaseUrl + "/drive/v3/files/" + fileId + "?fields=webViewLink")
+                .header("Authorization", "Bearer " + accessToken)
+                .get()
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new ProviderHttpException(response.code(), "Error al obtener el archivo de Google Drive: " + response.code());
+            }
+            Map<String, Object> file = objectMapper.readValue(response.body().byteStream(), Map.class);
+            return (String) file.get("webViewLink");
+        } catch (Exception e) {
+            log.error("Error al obtener URL de visualización de Google Drive", e);
+            throw new RuntimeException("Error al obtener URL de visualización de Google Drive", e);
+        }
+    }
+
+    @Override
+    public void deleteFile(String fileId, String accessToken) {
+        Request request = new Request.Builder()
+                .url(apiBaseUrl + "/drive/v3/files/" + fileId)
+                .header("Authorization", "Bearer " + accessToken)
+                .delete()
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new ProviderHttpException(response.code(), "Error al eliminar el archivo de Google Drive: " + response.code());
+            }
+        } catch (Exception e) {
+            log.error("Error al eliminar archivo de Google Drive", e);
+            throw new RuntimeException("Error al eliminar archivo de Google Drive", e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.cloudintegrationms.infrastructure.googledrive;
+
+import com.cloudintegrationms.domain.googledrive.GoogleDriveService;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.domain.provider.CredentialRefresher;
+import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
+import com.cloudintegrationms.server.domain.model.CloudIntegration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resuelve el token de acceso de Google Drive de un usuario. El refresco programado renueva los tokens
+ * antes de que caduquen; si aun así llega uno a punto de caducar, se refresca y guarda aquí mismo,
+ * una sola vez por usuario aunque lleguen varias peticiones a la vez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cloud-integration.providers.google-drive.enabled", havingValue = "true")
+public class GoogleDriveTokenProvider implements CredentialRefresher {
+
+    // Margen para no usar un token que caduque a mitad de una subida
+    private static final Duration REFRESH_MARGIN = Duration.ofMinutes(5);
+
+    @Lazy
+    private final GoogleDriveService googleDriveService;
+    private final CloudIntegrationUseCase cloudIntegrationUseCase;
+
+    private static final String PROVIDER = CloudProvider.GOOGLE_DRIVE.key();
+
+    // Refrescos en curso por usuario; las peticiones concurrentes esperan al mismo resultado
+    private final ConcurrentMap<String, CompletableFuture<Optional<GoogleDriveCredentials>>> inFlight =
+            new ConcurrentHashMap<>();
+
+    public Optional<String> getAccessToken(String userId) {
+        Optional<String> stored = cloudIntegrationUseCase.getActiveCredentials(userId, PROVIDER);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        GoogleDriveCredentials credentials = GoogleDriveCredentials.parse(stored.get());
+        if (credentials.refreshToken() == null || !credentials.expiresWithin(REFRESH_MARGIN)) {
+            return Optional.of(credentials.accessToken());
+        }
+        return refresh(userId).map(GoogleDriveCredentials::accessToken);
+    }
+
+    @Override
+    public CloudProvider provider() {
+        return CloudProvider.GOOGLE_DRIVE;
+    }
+
+    @Override
+    public void refresh(CloudIntegration integration) {
+        GoogleDriveCredentials credentials = GoogleDriveCredentials.parse(integration.getCredentials());
+        if (credentials.refreshToken() == null) {
+            throw new IllegalStateException("La integración " + integration.getId() + " no tiene token de refresco");
+        }
+        GoogleDriveCredentials refreshed = renew(credentials);
+        // Se relee para no reactivar una integración que el usuario desconectó mientras tanto
+        CloudIntegration current = cloudIntegrationUseCase.getIntegration(integration.getId());
+        if (current != null && current.isActive()) {
+            save(current, refreshed);
+        }
+    }
+
+    /**
+     * Convierte la respuesta de Google en credenciales; Google no siempre devuelve un nuevo token de refresco.
+     */
+    static GoogleDriveCredentials toCredentials(Map<String, String> tokens, String previousRefreshToken) {
+        String refreshToken = tokens.getOrDefault("refresh_token", previousRefreshToken);
+        String expiresIn = tokens.get("expires_in");
+        Instant expiresAt = expiresIn != null ? Instant.now().plusSeconds(Long.parseLong(expiresIn)) : null;
+        return new GoogleDriveCredentials(tokens.get("access_token"), refreshToken, expiresAt);
+    }
+
+    private Optional<GoogleDriveCredentials> refresh(String userId) {
+        CompletableFuture<Optional<GoogleDriveCredentials>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<GoogleDriveCredentials>> existing = inFlight.putIfAbsent(userId, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Optional<GoogleDriveCredentials> refreshed = refreshStored(userId);
+            mine.complete(refreshed);
+            return refreshed;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(userId, mine);
+        }
+    }
+
+    /**
+     * Relee la integración activa y renueva su token; se guarda por id en la misma fila de la que
+     * se leyó el token de refresco.
+     */
+    private Optional<GoogleDriveCredentials> refreshStored(String userId) {
+        Optional<CloudIntegration> integration = cloudIntegrationUseCase.getActiveIntegration(userId, PROVIDER);
+        if (integration.isEmpty()) {
+            return Optional.empty();
+        }
+        GoogleDriveCredentials credentials = GoogleDriveCredentials.parse(integration.get().getCredentials());
+        // Otra réplica o el refresco programado pudo renovarlo mientras tanto
+        if (credentials.refreshToken() == null || !credentials.expiresWithin(REFRESH_MARGIN)) {
+            return Optional.of(credentials);
+        }
+        GoogleDriveCredentials refreshed = renew(credentials);
+        save(integration.get(), refreshed);
+        log.info("Token de Google Drive refrescado al usarlo para el usuario {}", userId);
+        return Optional.of(refreshed);
+    }
+
+    private GoogleDriveCredentials renew(GoogleDriveCredentials credentials) {
+        return toCredentials(googleDriveService.refreshAccessToken(credentials.refreshToken()), credentials.refreshToken());
+    }
+
+    private void save(CloudIntegration integration, GoogleDriveCredentials credentials) {
+        integration.setCredentials(credentials.toJson());
+        integration.setExpiresAt(credentials.expiresAt());
+        cloudIntegrationUseCase.updateIntegration(integration);
+    }
+}
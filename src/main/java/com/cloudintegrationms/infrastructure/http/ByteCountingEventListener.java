@@ -0,0 +1,68 @@
+package com.cloudintegrationms.infrastructure.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cuenta los bytes de cuerpo enviados y recibidos por host y delega el resto de eventos en el
+ * listener de timers de Micrometer, porque OkHttp solo admite un EventListener por cliente.
+ * Los bytes recibidos son los del cuerpo ya descomprimido que lee el adaptador.
+ */
+class ByteCountingEventListener extends EventListener {
+
+    private final EventListener delegate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> sent = new ConcurrentHashMap<>();
+    private final Map<String, Counter> received = new ConcurrentHashMap<>();
+
+    ByteCountingEventListener(EventListener delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        delegate.callStart(call);
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        sent.computeIfAbsent(call.request().url().host(), host -> counter("okhttp.request.bytes", host))
+                .increment(byteCount);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        delegate.responseHeadersEnd(call, response);
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        received.computeIfAbsent(call.request().url().host(), host -> counter("okhttp.response.bytes", host))
+                .increment(byteCount);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        delegate.callEnd(call);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        delegate.callFailed(call, ioe);
+    }
+
+    private Counter counter(String name, String host) {
+        return Counter.builder(name)
+                .baseUnit("bytes")
+                .tag("host", host)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.cloudintegrationms.infrastructure.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita las llamadas simultáneas a cada host con un semáforo. Con hilos virtuales el tamaño
+ * del pool deja de acotar la concurrencia, así que el límite hacia cada proveedor se fija aquí.
+ */
+public class HostConcurrencyLimiter implements Interceptor {
+
+    private final int maxInFlightPerHost;
+    private final Duration acquireTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public HostConcurrencyLimiter(int maxInFlightPerHost, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.maxInFlightPerHost = maxInFlightPerHost;
+        this.acquireTimeout = acquireTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        String host = chain.request().url().host();
+        Semaphore semaphore = permits.computeIfAbsent(host, this::newSemaphore);
+        try {
+            if (!semaphore.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("Demasiadas llamadas simultáneas a " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando turno para " + host);
+        }
+        try {
+            return chain.proceed(chain.request());
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private Semaphore newSemaphore(String host) {
+        Semaphore semaphore = new Semaphore(maxInFlightPerHost, true);
+        Gauge.builder("okhttp.host.in.flight", semaphore, s -> maxInFlightPerHost - s.availablePermits())
+                .tag("host", host)
+                .register(meterRegistry);
+        return semaphore;
+    }
+}
@@ -0,0 +1,144 @@
+package com.cloudintegrationms.infrastructure.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.netty.channel.ChannelOption;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente HTTP compartido por los adaptadores de proveedores (Notion, ...).
+ * Un único pool de conexiones reutiliza las sesiones TLS/HTTP2 entre llamadas y los
+ * timeouts acotan cuánto puede bloquear un proveedor degradado a un hilo de petición.
+ * La compresión gzip de respuestas la negocia OkHttp de forma transparente.
+ */
+@Configuration
+public class ProviderHttpClientConfig {
+
+    @Value("${cloud-integration.http.max-idle-connections:20}")
+    private int maxIdleConnections;
+
+    @Value("${cloud-integration.http.keep-alive:5m}")
+    private Duration keepAlive;
+
+    @Value("${cloud-integration.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${cloud-integration.http.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${cloud-integration.http.write-timeout:30s}")
+    private Duration writeTimeout;
+
+    @Value("${cloud-integration.http.call-timeout:60s}")
+    private Duration callTimeout;
+
+    @Value("${cloud-integration.http.max-requests:128}")
+    private int maxRequests;
+
+    @Value("${cloud-integration.http.max-requests-per-host:32}")
+    private int maxRequestsPerHost;
+
+    @Value("${cloud-integration.http.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Value("${cloud-integration.http.max-in-flight-per-host:64}")
+    private int maxInFlightPerHost;
+
+    @Value("${cloud-integration.http.in-flight-acquire-timeout:10s}")
+    private Duration inFlightAcquireTimeout;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Bean
+    public ConnectionPool providerConnectionPool(MeterRegistry meterRegistry) {
+        ConnectionPool pool = new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("okhttp.pool.connections", pool, ConnectionPool::idleConnectionCount)
+                .tag("state", "idle")
+                .register(meterRegistry);
+        Gauge.builder("okhttp.pool.connections", pool, p -> p.connectionCount() - p.idleConnectionCount())
+                .tag("state", "active")
+                .register(meterRegistry);
+        return pool;
+    }
+
+    @Bean
+    public Dispatcher providerDispatcher(MeterRegistry meterRegistry) {
+        Dispatcher dispatcher;
+        if (virtualThreadsEnabled) {
+            // Cada llamada asíncrona corre en su propio hilo virtual; la concurrencia la acota HostConcurrencyLimiter
+            dispatcher = new Dispatcher(Executors.newVirtualThreadPerTaskExecutor());
+            dispatcher.setMaxRequests(Integer.MAX_VALUE);
+            dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+        } else {
+            dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(maxRequests);
+            dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        }
+        Gauge.builder("okhttp.dispatcher.calls", dispatcher, Dispatcher::queuedCallsCount)
+                .tag("state", "queued")
+                .register(meterRegistry);
+        Gauge.builder("okhttp.dispatcher.calls", dispatcher, Dispatcher::runningCallsCount)
+                .tag("state", "running")
+                .register(meterRegistry);
+        return dispatcher;
+    }
+
+    @Bean
+    public OkHttpClient providerHttpClient(ConnectionPool providerConnectionPool,
+                                           Dispatcher providerDispatcher,
+                                           MeterRegistry meterRegistry) {
+        List<Protocol> protocols = http2Enabled
+                ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                : List.of(Protocol.HTTP_1_1);
+        return new OkHttpClient.Builder()
+                .connectionPool(providerConnectionPool)
+                .dispatcher(providerDispatcher)
+                .protocols(protocols)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .writeTimeout(writeTimeout)
+                .callTimeout(callTimeout)
+                .addInterceptor(new HostConcurrencyLimiter(maxInFlightPerHost, inFlightAcquireTimeout, meterRegistry))
+                .eventListener(new ByteCountingEventListener(
+                        OkHttpMetricsEventListener.builder(meterRegistry, "okhttp.requests").build(), meterRegistry))
+                .build();
+    }
+
+    /**
+     * Cliente no bloqueante para los adaptadores asíncronos, con los mismos límites y timeouts.
+     */
+    @Bean
+    public WebClient providerWebClient(WebClient.Builder builder) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("provider-http")
+                .maxConnections(maxRequests)
+                .maxIdleTime(keepAlive)
+                .metrics(true)
+                .build();
+        // Métricas de conexiones y bytes de Reactor Netty; la URI se agrupa para acotar la cardinalidad
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .metrics(true, uri -> "provider")
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout)
+                .compress(true);
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
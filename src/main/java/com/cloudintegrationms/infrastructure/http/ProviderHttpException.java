@@ -0,0 +1,26 @@
+package com.cloudintegrationms.infrastructure.http;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Respuesta no satisfactoria de la API de un proveedor, conservando el código HTTP.
+ */
+@Getter
+public class ProviderHttpException extends IOException {
+
+    private final int statusCode;
+
+    public ProviderHttpException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Errores atribuibles a la petición (4xx salvo 408 y 429), que no indican que el proveedor esté degradado.
+     */
+    public boolean isClientError() {
+        return statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cloudintegrationms.infrastructure.http;
+
+/**
+ * Cubeta de tokens que reparte turnos en orden de llegada: cuando no quedan permisos
+ * cada reserva acumula deuda y recibe el tiempo que debe esperar antes de llamar.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double available;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.capacity = burst;
+        this.available = burst;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Reserva un permiso si la espera resultante no supera maxWaitNanos.
+     * @return nanosegundos a esperar antes de usar el permiso, o -1 si la espera sería mayor
+     */
+    public synchronized long reserve(long nowNanos, long maxWaitNanos) {
+        refill(nowNanos);
+        double remaining = available - 1;
+        long waitNanos = remaining >= 0 ? 0 : (long) Math.ceil(-remaining / permitsPerNano);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        available = remaining;
+        return waitNanos;
+    }
+
+    /**
+     * Devuelve un permiso reservado que finalmente no se usó, para no frenar a las reservas posteriores.
+     */
+    public synchronized void refund(long nowNanos) {
+        refill(nowNanos);
+        available = Math.min(capacity, available + 1);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            available = Math.min(capacity, available + elapsed * permitsPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
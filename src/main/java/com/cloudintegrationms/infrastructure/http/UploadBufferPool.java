@@ -0,0 +1,66 @@
+package com.cloudintegrationms.infrastructure.http;
+
+import com.cloudintegrationms.infrastructure.resilience.ProviderUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers de tamaño fijo para las subidas a un proveedor, reutilizados entre subidas. El número de
+ * buffers acota las subidas simultáneas y, con ello, la memoria que ocupan; cuando se agotan la subida
+ * se rechaza antes de leer el cuerpo de la petición. Los buffers se crean al necesitarlos por primera vez.
+ */
+public class UploadBufferPool {
+
+    private final String provider;
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final Duration acquireTimeout;
+    private final Semaphore permits;
+    private final Queue<byte[]> free = new ConcurrentLinkedQueue<>();
+
+    public UploadBufferPool(String provider, int bufferSize, int maxBuffers, Duration acquireTimeout,
+                            MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.acquireTimeout = acquireTimeout;
+        this.permits = new Semaphore(maxBuffers, true);
+        Gauge.builder("provider.upload.buffers.in.use", permits, p -> maxBuffers - p.availablePermits())
+                .tag("provider", provider)
+                .register(meterRegistry);
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Reserva un buffer; hay que devolverlo con {@link #release(byte[])} al terminar la subida.
+     * @throws ProviderUnavailableException si todos los buffers siguen ocupados pasado el tiempo de espera
+     */
+    public byte[] acquire() {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ProviderUnavailableException(provider, "upload-capacity", Duration.ofSeconds(1),
+                        "Demasiadas subidas simultáneas a " + provider + " (máximo " + maxBuffers + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderUnavailableException(provider, "upload-capacity", Duration.ofSeconds(1),
+                    "Interrumpido esperando turno de subida a " + provider);
+        }
+        byte[] buffer = free.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        free.offer(buffer);
+        permits.release();
+    }
+}
@@ -0,0 +1,60 @@
+package com.cloudintegrationms.infrastructure.metrics;
+
+import com.cloudintegrationms.domain.googledrive.GoogleDriveService;
+import com.cloudintegrationms.domain.notion.NotionAsyncService;
+import com.cloudintegrationms.domain.notion.NotionService;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Timers por operación alrededor de los adaptadores de proveedores y del caso de uso de integraciones,
+ * para separar en cada petición el tiempo de base de datos, de llamadas al proveedor y de decodificación.
+ * El interceptor se coloca el primero de la cadena, así que también mide las llamadas rechazadas por
+ * el circuit breaker o el bulkhead.
+ */
+@Configuration
+public class HotPathMetricsConfig {
+
+    private record TimedComponent(String name, String provider) {
+    }
+
+    private static final Map<Class<?>, TimedComponent> TIMED_TYPES = Map.of(
+            NotionService.class, new TimedComponent("notion", CloudProvider.NOTION.key()),
+            NotionAsyncService.class, new TimedComponent("notion-async", CloudProvider.NOTION.key()),
+            GoogleDriveService.class, new TimedComponent("google-drive", CloudProvider.GOOGLE_DRIVE.key()),
+            CloudIntegrationUseCase.class, new TimedComponent("integrations", null)
+    );
+
+    @Bean
+    public static BeanPostProcessor hotPathMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                for (Map.Entry<Class<?>, TimedComponent> timed : TIMED_TYPES.entrySet()) {
+                    if (timed.getKey().isInstance(bean)) {
+                        OperationTimingInterceptor interceptor = new OperationTimingInterceptor(
+                                meterRegistry.getObject(), timed.getValue().name(), timed.getValue().provider());
+                        if (bean instanceof Advised advised && !advised.isFrozen()) {
+                            advised.addAdvice(0, interceptor);
+                            return bean;
+                        }
+                        ProxyFactory proxyFactory = new ProxyFactory(bean);
+                        proxyFactory.setProxyTargetClass(true);
+                        proxyFactory.addAdvice(interceptor);
+                        return proxyFactory.getProxy();
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.cloudintegrationms.infrastructure.metrics;
+
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cada llamada a un componente del camino caliente con el timer {@code cloud.integration.operation},
+ * etiquetado por componente, operación, proveedor y resultado. En los métodos asíncronos se mide hasta que
+ * se completa el futuro. Los timers se resuelven una vez por combinación de etiquetas y se reutilizan.
+ */
+class OperationTimingInterceptor implements MethodInterceptor {
+
+    static final String METRIC = "cloud.integration.operation";
+
+    private static final int NO_PROVIDER_ARGUMENT = -1;
+
+    private final MeterRegistry meterRegistry;
+    private final String component;
+    private final String fixedProvider;
+    private final Map<Method, Integer> providerArguments = new ConcurrentHashMap<>();
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private record TimerKey(Method method, String provider, String exception) {
+    }
+
+    /**
+     * @param fixedProvider proveedor de todas las llamadas, o nulo para tomarlo del argumento {@code provider}
+     */
+    OperationTimingInterceptor(MeterRegistry meterRegistry, String component, String fixedProvider) {
+        this.meterRegistry = meterRegistry;
+        this.component = component;
+        this.fixedProvider = fixedProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            record(invocation, start, e);
+            throw e;
+        }
+        if (result instanceof CompletableFuture<?> future) {
+            return future.whenComplete((value, error) -> record(invocation, start, error));
+        }
+        record(invocation, start, null);
+        return result;
+    }
+
+    private void record(MethodInvocation invocation, long start, Throwable error) {
+        long duration = System.nanoTime() - start;
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        String exception = error == null ? "none" : error.getClass().getSimpleName();
+        TimerKey key = new TimerKey(invocation.getMethod(), provider(invocation), exception);
+        timers.computeIfAbsent(key, this::timer).record(duration, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder(METRIC)
+                .tag("component", component)
+                .tag("operation", key.method().getName())
+                .tag("provider", key.provider())
+                .tag("outcome", "none".equals(key.exception()) ? "success" : "error")
+                .tag("exception", key.exception())
+                .register(meterRegistry);
+    }
+
+    private String provider(MethodInvocation invocation) {
+        if (fixedProvider != null) {
+            return fixedProvider;
+        }
+        int index = providerArguments.computeIfAbsent(invocation.getMethod(), OperationTimingInterceptor::providerArgument);
+        if (index == NO_PROVIDER_ARGUMENT) {
+            return "none";
+        }
+        // Solo se etiquetan proveedores conocidos, para no disparar la cardinalidad con valores arbitrarios
+        Object value = invocation.getArguments()[index];
+        return value instanceof String key && CloudProvider.fromKey(key).isPresent() ? key : "none";
+    }
+
+    private static int providerArgument(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getType() == String.class && "provider".equals(parameters[i].getName())) {
+                return i;
+            }
+        }
+        return NO_PROVIDER_ARGUMENT;
+    }
+}
@@ -0,0 +1,147 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionAsyncService;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.infrastructure.resilience.ProviderUnavailableException;
+import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Mismas operaciones de páginas que {@link NotionController}, pero devolviendo resultados diferidos:
+ * mientras Notion responde solo se retiene el socket, no el hilo de la petición.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/cloud/notion/async")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cloud-integration.providers.notion.enabled", havingValue = "true")
+public class NotionAsyncController {
+
+    // Límite de page_size que admite la API de búsqueda de Notion
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Lazy
+    private final NotionAsyncService notionAsyncService;
+    private final CloudIntegrationUseCase cloudIntegrationUseCase;
+    private final NotionTokenValidationCache tokenValidationCache;
+
+    /**
+     * Crea una nueva página en Notion
+     */
+    @PostMapping("/pages")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> createPage(
+            @RequestParam String userId,
+            @RequestParam String parentId,
+            @RequestBody Map<String, String> pageData) {
+        
+        String title = pageData.get("title");
+        String content = pageData.get("content");
+        
+        if (title == null || parentId == null) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.<String, Object>of("error", "Se requieren los campos title y parentId")));
+        }
+        
+        Optional<String> accessToken = getAccessTokenForUser(userId);
+        if (accessToken.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "Usuario no conectado con Notion")));
+        }
+        
+        return notionAsyncService.createPage(parentId, title, content, accessToken.get())
+                .thenApply(pageId -> ResponseEntity.ok(Map.<String, Object>of(
+                        "pageId", pageId,
+                        "message", "Página creada exitosamente"
+                )))
+                .exceptionally(e -> errorResponse("Error al crear página: ", e));
+    }
+    
+    /**
+     * Obtiene una página de Notion
+     */
+    @GetMapping("/pages/{pageId}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getPage(
+            @PathVariable String pageId,
+            @RequestParam String userId) {
+        
+        Optional<String> accessToken = getAccessTokenForUser(userId);
+        if (accessToken.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "Usuario no conectado con Notion")));
+        }
+        
+        return notionAsyncService.getPage(pageId, accessToken.get())
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> errorResponse("Error al obtener página: ", e));
+    }
+    
+    /**
+     * Lista las páginas de un usuario en Notion
+     */
+    @GetMapping("/pages")
+    public CompletableFuture<ResponseEntity<?>> listPages(
+            @RequestParam String userId,
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String startCursor,
+            @RequestParam(defaultValue = "100") int pageSize) {
+        Optional<String> accessToken = getAccessTokenForUser(userId);
+        if (accessToken.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("error", "Usuario no conectado con Notion")));
+        }
+        
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        return notionAsyncService.listPages(accessToken.get(), query, startCursor, size)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> errorResponse("Error al listar páginas: ", e));
+    }
+    
+    /**
+     * Obtiene el estado de conexión con Notion para un usuario
+     */
+    @GetMapping("/status")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getConnectionStatus(@RequestParam String userId) {
+        Optional<String> accessToken = getAccessTokenForUser(userId);
+        if (accessToken.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(Map.of("connected", false)));
+        }
+        
+        return tokenValidationCache.isValidAsync(userId, accessToken.get(), notionAsyncService::validateToken)
+                .thenApply(isValid -> ResponseEntity.ok(Map.<String, Object>of("connected", isValid)))
+                .exceptionally(e -> errorResponse("Error al verificar conexión: ", e));
+    }
+    
+    /**
+     * Los futuros envuelven el error original en un CompletionException. Los rechazos por
+     * proveedor no disponible se propagan para que ProviderExceptionHandler responda con un 503.
+     */
+    private static ResponseEntity<Map<String, Object>> errorResponse(String prefix, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof ProviderUnavailableException unavailable) {
+            throw unavailable;
+        }
+        if (cause instanceof NotionPartialPageException partial) {
+            // Se devuelve el ID para que el cliente complete la página en lugar de crearla de nuevo
+            return ResponseEntity.badRequest().body(Map.of("error", prefix + partial.getMessage(), "pageId", partial.getPageId()));
+        }
+        return ResponseEntity.badRequest().body(Map.of("error", prefix + cause.getMessage()));
+    }
+    
+    /**
+     * Método auxiliar para obtener el token de acceso de Notion para un usuario
+     */
+    private Optional<String> getAccessTokenForUser(String userId) {
+        return cloudIntegrationUseCase.getActiveCredentials(userId, CloudProvider.NOTION.key());
+    }
+}
@@ -0,0 +1,137 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionAsyncService;
+import com.cloudintegrationms.domain.notion.NotionPageList;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.infrastructure.http.ProviderHttpException;
+import com.cloudintegrationms.infrastructure.resilience.GuardsEachCall;
+import com.cloudintegrationms.infrastructure.resilience.ProviderCallGuardFilter;
+import com.cloudintegrationms.infrastructure.resilience.ProviderCallGuards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Service
+@Lazy
+@ConditionalOnProperty(name = "cloud-integration.providers.notion.enabled", havingValue = "true")
+@GuardsEachCall
+public class NotionAsyncServiceImpl implements NotionAsyncService {
+
+    private static final String NOTION_API_BASE_URL = "https://api.notion.com/v1";
+    private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE = new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+
+    public NotionAsyncServiceImpl(WebClient providerWebClient,
+                                  NotionRateLimiter rateLimiter,
+                                  ProviderCallGuards callGuards,
+                                  @Value("${notion.api.version}") String notionApiVersion) {
+        // Los filtros se aplican en orden: la espera de turno queda fuera del bulkhead y del circuito
+        this.webClient = providerWebClient.mutate()
+                .baseUrl(NOTION_API_BASE_URL)
+                .defaultHeader("Notion-Version", notionApiVersion)
+                .filter(new NotionRateLimitFilter(rateLimiter))
+                .filter(new ProviderCallGuardFilter(callGuards.forProvider(CloudProvider.NOTION.key())))
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<String> createPage(String parentId, String title, String content, String accessToken) {
+        List<NotionPayloads.Block> blocks = NotionPayloads.paragraphs(content);
+        int firstChunk = Math.min(blocks.size(), NotionPayloads.MAX_BLOCKS_PER_REQUEST);
+        return webClient.post()
+                .uri("/pages")
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(NotionPayloads.createPage(parentId, title, blocks.subList(0, firstChunk)))
+                .retrieve()
+                .bodyToMono(MAP_TYPE)
+                .map(responseMap -> (String) responseMap.get("id"))
+                // Notion admite como máximo 100 bloques por petición; el resto se añade por tandas
+                .flatMap(pageId -> appendBlocks(pageId, blocks, firstChunk, accessToken).thenReturn(pageId))
+                .doOnError(e -> log.error("Error al crear página en Notion", e))
+                .toFuture();
+    }
+
+    private Mono<Void> appendBlocks(String pageId, List<NotionPayloads.Block> blocks, int from, String accessToken) {
+        if (from >= blocks.size()) {
+            return Mono.empty();
+        }
+        int to = Math.min(from + NotionPayloads.MAX_BLOCKS_PER_REQUEST, blocks.size());
+        return webClient.patch()
+                .uri("/blocks/{pageId}/children", pageId)
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new NotionPayloads.AppendChildren(blocks.subList(from, to)))
+                .retrieve()
+                .toBodilessEntity()
+                .onErrorMap(e -> new NotionPartialPageException(pageId, "La página " + pageId
+                        + " se creó en Notion, pero falló al añadir su contenido a partir del bloque " + from, e))
+                .then(Mono.defer(() -> appendBlocks(pageId, blocks, to, accessToken)));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getPage(String pageId, String accessToken) {
+        return webClient.get()
+                .uri("/pages/{pageId}", pageId)
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .retrieve()
+                .bodyToMono(MAP_TYPE)
+                .doOnError(e -> log.error("Error al obtener página de Notion", e))
+                .toFuture();
+    }
+
+    @Override
+    public CompletableFuture<NotionPageList> listPages(String accessToken, String query, String startCursor, int pageSize) {
+        // Utilizamos la API de búsqueda para listar las páginas
+        return webClient.post()
+                .uri("/search")
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(NotionPayloads.searchPages(query, startCursor, pageSize))
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .map(NotionAsyncServiceImpl::readPageList)
+                .doOnError(e -> log.error("Error al listar páginas de Notion", e))
+                .toFuture();
+    }
+
+    private static NotionPageList readPageList(byte[] body) {
+        try {
+            return NotionJson.PAGE_LIST.readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Respuesta de búsqueda de Notion inesperada", e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> validateToken(String accessToken) {
+        return webClient.get()
+                .uri("/users/me")
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .exchangeToMono(response -> {
+                    int status = response.statusCode().value();
+                    if (response.statusCode().is2xxSuccessful() || NotionTokens.isRejected(status)) {
+                        return response.releaseBody().thenReturn(response.statusCode().is2xxSuccessful());
+                    }
+                    // Un fallo del proveedor no dice nada del token: se propaga para no darlo por desconectado
+                    return response.releaseBody().then(Mono.<Boolean>error(
+                            new ProviderHttpException(status, "Error al validar token de Notion: " + status)));
+                })
+                .doOnError(e -> log.error("Error al validar token de Notion", e))
+                .toFuture();
+    }
+}
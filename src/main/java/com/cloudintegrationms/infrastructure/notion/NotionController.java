@@ -1,21 +1,33 @@
 package com.cloudintegrationms.infrastructure.notion;
 
+import com.cloudintegrationms.domain.notion.NotionPageList;
+import com.cloudintegrationms.domain.notion.NotionPageRequest;
 import com.cloudintegrationms.domain.notion.NotionService;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.infrastructure.resilience.ProviderUnavailableException;
 import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
-import com.cloudintegrationms.server.domain.model.CloudIntegration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @RestController
@@ -24,8 +36,20 @@ import java.util.Optional;
 @ConditionalOnProperty(name = "cloud-integration.providers.notion.enabled", havingValue = "true")
 public class NotionController {
 
+    @Lazy
     private final NotionService notionService;
     private final CloudIntegrationUseCase cloudIntegrationUseCase;
+    private final NotionTokenValidationCache tokenValidationCache;
+    private final ObjectMapper objectMapper;
+    private final NotionPageBatchProcessor pageBatchProcessor;
+
+    @Value("${cloud-integration.providers.notion.batch.max-pages:1000}")
+    private int maxBatchSize;
+
+    // Límite de page_size que admite la API de búsqueda de Notion
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final byte[] SSE_DATA_PREFIX = "data: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SSE_EVENT_END = "\n\n".getBytes(StandardCharsets.UTF_8);
 
     @PostMapping("/upload")
     public ResponseEntity<Map<String, String>> uploadFile(
@@ -108,12 +132,41 @@ public class NotionController {
                 "pageId", pageId,
                 "message", "Página creada exitosamente"
             ));
+        } catch (ProviderUnavailableException e) {
+            // Se resuelve como 503 estructurado en ProviderExceptionHandler
+            throw e;
+        } catch (NotionPartialPageException e) {
+            // Se devuelve el ID para que el cliente complete la página en lugar de crearla de nuevo
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Error al crear página: " + e.getMessage(),
+                "pageId", e.getPageId()
+            ));
         } catch (Exception e) {
             log.error("Error al crear página en Notion", e);
             return ResponseEntity.badRequest().body(Map.of("error", "Error al crear página: " + e.getMessage()));
         }
     }
     
+    /**
+     * Crea un lote de páginas con su contenido; el informe devuelve un resultado por página en el mismo orden.
+     * Las páginas con retryable=true pueden reenviarse en un lote posterior; las PARTIAL ya existen y no.
+     */
+    @PostMapping("/pages/batch")
+    public ResponseEntity<?> createPages(
+            @RequestParam String userId,
+            @RequestBody List<NotionPageRequest> pages) {
+        if (pages.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(Map.of("error", "El lote supera el máximo de " + maxBatchSize + " páginas"));
+        }
+
+        Optional<String> accessToken = getAccessTokenForUser(userId);
+        if (accessToken.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Usuario no conectado con Notion"));
+        }
+
+        return ResponseEntity.ok(pageBatchProcessor.createPages(pages, accessToken.get()));
+    }
+
     /**
      * Obtiene una página de Notion
      */
@@ -134,6 +187,9 @@ public class NotionController {
             Map<String, Object> page = notionService.getPage(pageId, accessToken.get());
             
             return ResponseEntity.ok(page);
+        } catch (ProviderUnavailableException e) {
+            // Se resuelve como 503 estructurado en ProviderExceptionHandler
+            throw e;
         } catch (Exception e) {
             log.error("Error al obtener página de Notion", e);
             return ResponseEntity.badRequest().body(Map.of("error", "Error al obtener página: " + e.getMessage()));
@@ -144,7 +200,11 @@ public class NotionController {
      * Lista las páginas de un usuario en Notion
      */
     @GetMapping("/pages")
-    public ResponseEntity<Map<String, Object>> listPages(@RequestParam String userId) {
+    public ResponseEntity<?> listPages(
+            @RequestParam String userId,
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String startCursor,
+            @RequestParam(defaultValue = "100") int pageSize) {
         try {
             // Buscar el token de acceso del usuario
             Optional<String> accessToken = getAccessTokenForUser(userId);
@@ -154,15 +214,71 @@ public class NotionController {
             }
             
             // Listar páginas
-            Map<String, Object> pages = notionService.listPages(accessToken.get());
+            NotionPageList pages = notionService.listPages(accessToken.get(), query, startCursor, clampPageSize(pageSize));
             
             return ResponseEntity.ok(pages);
+        } catch (ProviderUnavailableException e) {
+            // Se resuelve como 503 estructurado en ProviderExceptionHandler
+            throw e;
         } catch (Exception e) {
             log.error("Error al listar páginas de Notion", e);
             return ResponseEntity.badRequest().body(Map.of("error", "Error al listar páginas: " + e.getMessage()));
         }
     }
     
+    /**
+     * Emite todas las páginas del usuario según llegan de Notion, siguiendo next_cursor hasta el final.
+     * Responde con SSE si el cliente acepta text/event-stream y con NDJSON en otro caso.
+     */
+    @GetMapping("/pages/stream")
+    public ResponseEntity<?> streamPages(
+            @RequestParam String userId,
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "100") int pageSize,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<String> accessToken = getAccessTokenForUser(userId);
+        if (accessToken.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Usuario no conectado con Notion"));
+        }
+
+        boolean sse = accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        int size = clampPageSize(pageSize);
+        StreamingResponseBody body = outputStream -> {
+            AtomicInteger written = new AtomicInteger();
+            try {
+                notionService.streamPages(accessToken.get(), query, size, page -> {
+                    try {
+                        if (sse) {
+                            outputStream.write(SSE_DATA_PREFIX);
+                            outputStream.write(objectMapper.writeValueAsBytes(page));
+                            outputStream.write(SSE_EVENT_END);
+                        } else {
+                            outputStream.write(objectMapper.writeValueAsBytes(page));
+                            outputStream.write('\n');
+                        }
+                        // Se vacía al completar cada página de Notion para no retener el primer byte
+                        if (written.incrementAndGet() % size == 0) {
+                            outputStream.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.error("Error al emitir páginas de Notion tras {} resultados", written.get(), e);
+                if (sse) {
+                    outputStream.write("event: error\ndata: {\"error\":\"Error al listar páginas\"}\n\n".getBytes(StandardCharsets.UTF_8));
+                }
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(sse ? MediaType.TEXT_EVENT_STREAM : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     /**
      * Obtiene el estado de conexión con Notion para un usuario
      */
@@ -179,27 +295,29 @@ public class NotionController {
             }
             
             // Verificar si el token es válido
-            boolean isValid = notionService.validateToken(accessToken.get());
+            boolean isValid = tokenValidationCache.isValid(userId, accessToken.get(), notionService::validateToken);
             
             Map<String, Object> response = new HashMap<>();
             response.put("connected", isValid);
             
             return ResponseEntity.ok(response);
+        } catch (ProviderUnavailableException e) {
+            // Se resuelve como 503 estructurado en ProviderExceptionHandler
+            throw e;
         } catch (Exception e) {
             log.error("Error al obtener estado de conexión con Notion", e);
             return ResponseEntity.badRequest().body(Map.of("error", "Error al verificar conexión: " + e.getMessage()));
         }
     }
     
+    private static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
     /**
      * Método auxiliar para obtener el token de acceso de Notion para un usuario
      */
     private Optional<String> getAccessTokenForUser(String userId) {
-        List<CloudIntegration> integrations = cloudIntegrationUseCase.getUserIntegrations(userId);
-        
-        return integrations.stream()
-            .filter(integration -> "notion".equals(integration.getProvider()) && integration.isActive())
-            .map(CloudIntegration::getCredentials)
-            .findFirst();
+        return cloudIntegrationUseCase.getActiveCredentials(userId, CloudProvider.NOTION.key());
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
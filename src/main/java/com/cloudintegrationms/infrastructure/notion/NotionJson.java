@@ -0,0 +1,39 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionPage;
+import com.cloudintegrationms.domain.notion.NotionPageList;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.util.Map;
+
+/**
+ * Mapper y lectores de Jackson preconfigurados para la API de Notion.
+ * Son inmutables y seguros entre hilos, así que se comparten en lugar de crearse por petición.
+ */
+final class NotionJson {
+
+    static final ObjectMapper MAPPER = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .addModule(new SimpleModule("notion")
+                    .addDeserializer(NotionPage.class, new NotionPageDeserializer())
+                    .addDeserializer(NotionPageList.class, new NotionPageListDeserializer()))
+            .build();
+
+    static final ObjectReader PAGE = MAPPER.readerFor(NotionPage.class);
+    static final ObjectReader PAGE_LIST = MAPPER.readerFor(NotionPageList.class);
+    static final ObjectReader TOKEN = MAPPER.readerFor(NotionTokenResponse.class);
+    static final ObjectReader MAP = MAPPER.readerFor(new TypeReference<Map<String, Object>>() {
+    });
+    static final ObjectWriter WRITER = MAPPER.writer();
+
+    private NotionJson() {
+    }
+}
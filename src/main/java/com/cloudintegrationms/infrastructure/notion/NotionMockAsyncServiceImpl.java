@@ -0,0 +1,41 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionAsyncService;
+import com.cloudintegrationms.domain.notion.NotionPageList;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reutiliza las respuestas simuladas de {@link NotionMockServiceImpl} como futuros ya completados.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cloud-integration.providers.notion.enabled", havingValue = "false", matchIfMissing = true)
+public class NotionMockAsyncServiceImpl implements NotionAsyncService {
+
+    private final NotionMockServiceImpl mockService;
+
+    @Override
+    public CompletableFuture<String> createPage(String parentId, String title, String content, String accessToken) {
+        return CompletableFuture.completedFuture(mockService.createPage(parentId, title, content, accessToken));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> getPage(String pageId, String accessToken) {
+        return CompletableFuture.completedFuture(mockService.getPage(pageId, accessToken));
+    }
+
+    @Override
+    public CompletableFuture<NotionPageList> listPages(String accessToken, String query, String startCursor, int pageSize) {
+        return CompletableFuture.completedFuture(mockService.listPages(accessToken, query, startCursor, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> validateToken(String accessToken) {
+        return CompletableFuture.completedFuture(mockService.validateToken(accessToken));
+    }
+}
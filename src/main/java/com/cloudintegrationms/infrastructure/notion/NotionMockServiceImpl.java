@@ -1,14 +1,20 @@
 package com.cloudintegrationms.infrastructure.notion;
 
+import com.cloudintegrationms.domain.notion.NotionPage;
+import com.cloudintegrationms.domain.notion.NotionPageList;
 import com.cloudintegrationms.domain.notion.NotionService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -65,36 +71,24 @@ public class NotionMockServiceImpl implements NotionService {
     }
     
     @Override
-    public Map<String, Object> listPages(String accessToken) {
-        log.info("MOCK: Listing pages with token: {}", accessToken);
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("object", "list");
-        result.put("has_more", false);
-        
-        // Crear algunas páginas de ejemplo
-        Object[] pages = new Object[3];
+    public NotionPageList listPages(String accessToken, String query, String startCursor, int pageSize) {
+        List<NotionPage> pages = new ArrayList<>();
         for (int i = 0; i < 3; i++) {
-            String pageId = "mock_page_" + i;
-            Map<String, Object> page = new HashMap<>();
-            page.put("id", pageId);
-            page.put("url", "https://notion.so/mock/" + pageId);
-            page.put("created_time", "2023-01-01T00:00:00.000Z");
-            
-            Map<String, Object> properties = new HashMap<>();
-            Map<String, Object> title = new HashMap<>();
-            title.put("title", "Página Mock " + (i + 1));
-            properties.put("title", title);
-            page.put("properties", properties);
-            
-            pages[i] = page;
+            pages.add(NotionPage.builder()
+                    .id("mock_page_" + i)
+                    .url("https://notion.so/mock/mock_page_" + i)
+                    .title("Página Mock " + (i + 1))
+                    .createdTime(Instant.parse("2023-01-01T00:00:00.000Z"))
+                    .build());
         }
-        
-        result.put("results", pages);
-        
-        return result;
+        return NotionPageList.builder().results(pages).hasMore(false).build();
     }
-    
+
+    @Override
+    public void streamPages(String accessToken, String query, int pageSize, Consumer<NotionPage> consumer) {
+        listPages(accessToken, query, null, pageSize).getResults().forEach(consumer);
+    }
+
     @Override
     public boolean validateToken(String accessToken) {
         log.info("MOCK: Validating token: {}", accessToken);
@@ -0,0 +1,121 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionPageBatchResult;
+import com.cloudintegrationms.domain.notion.NotionPageRequest;
+import com.cloudintegrationms.domain.notion.NotionService;
+import com.cloudintegrationms.infrastructure.http.ProviderHttpException;
+import com.cloudintegrationms.infrastructure.resilience.ProviderUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Crea lotes de páginas en Notion con un número acotado de peticiones simultáneas.
+ * Cada página pasa por {@link NotionService}, de modo que el limitador por workspace, el circuit breaker
+ * y el bulkhead se aplican página a página; el informe conserva el orden de entrada.
+ */
+@Slf4j
+@Component
+public class NotionPageBatchProcessor {
+
+    private final NotionService notionService;
+    private final int concurrency;
+
+    public NotionPageBatchProcessor(
+            @Lazy NotionService notionService,
+            @Value("${cloud-integration.providers.notion.batch.concurrency:3}") int concurrency) {
+        this.notionService = notionService;
+        this.concurrency = concurrency;
+    }
+
+    public List<NotionPageBatchResult> createPages(List<NotionPageRequest> pages, String accessToken) {
+        AtomicReferenceArray<NotionPageBatchResult> results = new AtomicReferenceArray<>(pages.size());
+        Semaphore permits = new Semaphore(concurrency);
+
+        // Los hilos virtuales solo esperan la respuesta de Notion; el semáforo limita cuántas hay en curso
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < pages.size(); i++) {
+                int index = i;
+                NotionPageRequest page = pages.get(i);
+                if (page == null || page.getParentId() == null || page.getTitle() == null) {
+                    results.set(index, NotionPageBatchResult.builder()
+                            .index(index)
+                            .status(NotionPageBatchResult.Status.INVALID)
+                            .error("Se requieren los campos title y parentId")
+                            .build());
+                    continue;
+                }
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        results.set(index, createPage(index, page, accessToken));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        List<NotionPageBatchResult> report = new ArrayList<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            report.add(results.get(i));
+        }
+        return report;
+    }
+
+    private NotionPageBatchResult createPage(int index, NotionPageRequest page, String accessToken) {
+        try {
+            String pageId = notionService.createPage(page.getParentId(), page.getTitle(), page.getContent(), accessToken);
+            return NotionPageBatchResult.builder()
+                    .index(index)
+                    .pageId(pageId)
+                    .status(NotionPageBatchResult.Status.CREATED)
+                    .build();
+        } catch (NotionPartialPageException e) {
+            // La página ya existe: reenviarla la duplicaría, así que se devuelve su ID para completarla
+            log.warn("Página {} del lote creada en Notion con el contenido incompleto: {}", index, e.getMessage());
+            return NotionPageBatchResult.builder()
+                    .index(index)
+                    .pageId(e.getPageId())
+                    .status(NotionPageBatchResult.Status.PARTIAL)
+                    .error(e.getMessage())
+                    .retryable(false)
+                    .build();
+        } catch (RuntimeException e) {
+            log.warn("Error al crear la página {} del lote en Notion: {}", index, e.getMessage());
+            return NotionPageBatchResult.builder()
+                    .index(index)
+                    .status(NotionPageBatchResult.Status.FAILED)
+                    .error(e.getMessage())
+                    .retryable(isRetryable(e))
+                    .build();
+        }
+    }
+
+    /**
+     * Un fallo es reintentable si se debe al proveedor o a la red y no a la propia petición.
+     */
+    private static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProviderUnavailableException) {
+                return true;
+            }
+            if (cause instanceof ProviderHttpException httpException) {
+                return !httpException.isClientError();
+            }
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionPage;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Lee una página (o base de datos) de Notion directamente del parser, quedándose con los campos de
+ * {@link NotionPage} y saltando el resto sin construir árboles intermedios.
+ */
+class NotionPageDeserializer extends StdDeserializer<NotionPage> {
+
+    NotionPageDeserializer() {
+        super(NotionPage.class);
+    }
+
+    @Override
+    public NotionPage deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        NotionPage.NotionPageBuilder page = NotionPage.builder();
+        String title = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> page.id(parser.getValueAsString());
+                case "url" -> page.url(parser.getValueAsString());
+                case "created_time" -> page.createdTime(readInstant(parser));
+                case "last_edited_time" -> page.lastEditedTime(readInstant(parser));
+                // Las bases de datos llevan el título en la raíz y las páginas dentro de sus propiedades
+                case "title" -> title = firstNonNull(title, readPlainText(parser));
+                case "properties" -> title = firstNonNull(title, readTitleProperty(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return page.title(title).build();
+    }
+
+    private static String firstNonNull(String current, String candidate) {
+        return current != null ? current : candidate;
+    }
+
+    private static Instant readInstant(JsonParser parser) throws IOException {
+        String value = parser.getValueAsString();
+        return value != null ? Instant.parse(value) : null;
+    }
+
+    /**
+     * La propiedad de tipo título es la única que contiene un array "title".
+     */
+    private static String readTitleProperty(JsonParser parser) throws IOException {
+        String title = null;
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                parser.nextToken();
+                if ("title".equals(key)) {
+                    title = readPlainText(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return title;
+    }
+
+    private static String readPlainText(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                parser.nextToken();
+                if ("plain_text".equals(key)) {
+                    text.append(parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionPage;
+import com.cloudintegrationms.domain.notion.NotionPageList;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee una respuesta de /search de Notion delegando cada resultado en {@link NotionPageDeserializer}.
+ */
+class NotionPageListDeserializer extends StdDeserializer<NotionPageList> {
+
+    private final NotionPageDeserializer pageDeserializer = new NotionPageDeserializer();
+
+    NotionPageListDeserializer() {
+        super(NotionPageList.class);
+    }
+
+    @Override
+    public NotionPageList deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        NotionPageList.NotionPageListBuilder list = NotionPageList.builder().results(List.of());
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "results" -> {
+                    List<NotionPage> results = new ArrayList<>();
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        results.add(pageDeserializer.deserialize(parser, context));
+                    }
+                    list.results(results);
+                }
+                case "next_cursor" -> list.nextCursor(parser.getValueAsString());
+                case "has_more" -> list.hasMore(parser.getValueAsBoolean());
+                default -> parser.skipChildren();
+            }
+        }
+        return list.build();
+    }
+}
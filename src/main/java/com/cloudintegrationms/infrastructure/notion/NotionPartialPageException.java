@@ -0,0 +1,18 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import lombok.Getter;
+
+/**
+ * La página se creó en Notion pero falló al añadir parte de su contenido. Reenviar la petición
+ * crearía una página duplicada, así que se informa del ID de la página ya existente.
+ */
+@Getter
+public class NotionPartialPageException extends RuntimeException {
+
+    private final String pageId;
+
+    public NotionPartialPageException(String pageId, String message, Throwable cause) {
+        super(message, cause);
+        this.pageId = pageId;
+    }
+}
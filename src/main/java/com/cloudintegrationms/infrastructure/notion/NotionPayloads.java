@@ -0,0 +1,117 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cuerpos de petición de la API de Notion compartidos por los clientes bloqueante y asíncrono.
+ * Los nombres se fijan con anotaciones para serializar igual con cualquier ObjectMapper.
+ */
+final class NotionPayloads {
+
+    record Filter(String property, String value) {
+    }
+
+    record Sort(String direction, String timestamp) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Search(Filter filter, Sort sort, String query,
+                  @JsonProperty("start_cursor") String startCursor,
+                  @JsonProperty("page_size") Integer pageSize) {
+    }
+
+    record PageParent(@JsonProperty("page_id") String pageId) {
+    }
+
+    record TitleText(String content) {
+    }
+
+    record TitleProperty(List<TitleText> title) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    record CreatePage(PageParent parent, Map<String, TitleProperty> properties, List<Block> children) {
+    }
+
+    record Text(String content) {
+    }
+
+    record RichText(String type, Text text) {
+    }
+
+    record Paragraph(@JsonProperty("rich_text") List<RichText> richText) {
+    }
+
+    record Block(String object, String type, Paragraph paragraph) {
+    }
+
+    record AppendChildren(List<Block> children) {
+    }
+
+    // Límites de la API de Notion por petición y por fragmento de texto
+    static final int MAX_BLOCKS_PER_REQUEST = 100;
+    static final int MAX_RICH_TEXT_PER_BLOCK = 100;
+    static final int MAX_TEXT_LENGTH = 2000;
+
+    private static final Filter PAGES_ONLY = new Filter("object", "page");
+
+    // Último objeto editado del workspace, usado como sonda de revalidación
+    static final Search LATEST_EDIT = new Search(null, new Sort("descending", "last_edited_time"), null, null, 1);
+
+    static Search searchPages(String query, String startCursor, int pageSize) {
+        return new Search(PAGES_ONLY, null,
+                query != null && !query.isBlank() ? query : null,
+                startCursor != null && !startCursor.isBlank() ? startCursor : null,
+                pageSize);
+    }
+
+    static CreatePage createPage(String parentId, String title, List<Block> children) {
+        return new CreatePage(new PageParent(parentId),
+                Map.of("title", new TitleProperty(List.of(new TitleText(title)))), children);
+    }
+
+    /**
+     * Convierte el contenido en bloques de párrafo, uno por cada párrafo separado por líneas en blanco.
+     * Los párrafos largos se trocean en fragmentos de texto de como máximo MAX_TEXT_LENGTH caracteres
+     * y, si superan MAX_RICH_TEXT_PER_BLOCK fragmentos, continúan en bloques sucesivos.
+     */
+    static List<Block> paragraphs(String content) {
+        List<Block> blocks = new ArrayList<>();
+        if (content == null || content.isBlank()) {
+            return blocks;
+        }
+        for (String paragraph : content.strip().split("\\R\\s*\\R")) {
+            List<RichText> richText = new ArrayList<>();
+            int start = 0;
+            while (start < paragraph.length()) {
+                int end = Math.min(start + MAX_TEXT_LENGTH, paragraph.length());
+                // No partir un par sustituto entre dos fragmentos
+                if (end < paragraph.length() && Character.isHighSurrogate(paragraph.charAt(end - 1))) {
+                    end--;
+                }
+                richText.add(new RichText("text", new Text(paragraph.substring(start, end))));
+                if (richText.size() == MAX_RICH_TEXT_PER_BLOCK) {
+                    blocks.add(paragraphBlock(richText));
+                    richText = new ArrayList<>();
+                }
+                start = end;
+            }
+            if (!richText.isEmpty()) {
+                blocks.add(paragraphBlock(richText));
+            }
+        }
+        return blocks;
+    }
+
+    private static Block paragraphBlock(List<RichText> richText) {
+        return new Block("block", "paragraph", new Paragraph(richText));
+    }
+
+    private NotionPayloads() {
+    }
+}
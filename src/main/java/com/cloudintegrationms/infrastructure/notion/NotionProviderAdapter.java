@@ -0,0 +1,81 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionService;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.domain.provider.CloudProviderAdapter;
+import com.cloudintegrationms.domain.provider.CloudProviderAuthorization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Adaptador de Notion para las rutas genéricas. El cliente de Notion no se crea hasta la primera llamada.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cloud-integration.providers.notion.enabled", havingValue = "true")
+public class NotionProviderAdapter implements CloudProviderAdapter {
+
+    private final ObjectProvider<NotionService> notionService;
+    private final String authSuccessRedirect;
+    private final String authFailureRedirect;
+
+    public NotionProviderAdapter(ObjectProvider<NotionService> notionService,
+                                 @Value("${notion.auth.success.redirect}") String authSuccessRedirect,
+                                 @Value("${notion.auth.failure.redirect}") String authFailureRedirect) {
+        this.notionService = notionService;
+        this.authSuccessRedirect = authSuccessRedirect;
+        this.authFailureRedirect = authFailureRedirect;
+    }
+
+    @Override
+    public CloudProvider provider() {
+        return CloudProvider.NOTION;
+    }
+
+    @Override
+    public String getAuthorizationUrl(String state) {
+        return notionService.getObject().getAuthorizationUrl(state);
+    }
+
+    @Override
+    public CloudProviderAuthorization completeAuthorization(String code) {
+        Map<String, String> tokens = notionService.getObject().exchangeCodeForTokens(code);
+        String workspaceName = tokens.get("workspace_name");
+        log.info("Autorización de Notion completada. Workspace: {}", workspaceName);
+
+        // Parámetros para notificar el workspace al frontend
+        String successRedirectUrl = authSuccessRedirect;
+        if (workspaceName != null) {
+            successRedirectUrl += "&workspace=" + workspaceName;
+        }
+        // Los tokens de Notion no caducan
+        return new CloudProviderAuthorization(tokens.get("access_token"), null, successRedirectUrl);
+    }
+
+    @Override
+    public String getAuthFailureRedirect() {
+        return authFailureRedirect;
+    }
+
+    @Override
+    public String uploadFile(String userId, InputStream inputStream, long size, String fileName, String mimeType) {
+        return notionService.getObject().uploadFile(inputStream, fileName, mimeType);
+    }
+
+    @Override
+    public String getFileViewUrl(String userId, String fileId) {
+        return notionService.getObject().getFileViewUrl(fileId);
+    }
+
+    @Override
+    public void deleteFile(String userId, String fileId) {
+        notionService.getObject().deleteFile(fileId);
+    }
+}
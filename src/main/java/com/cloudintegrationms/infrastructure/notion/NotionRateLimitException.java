@@ -0,0 +1,13 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import java.io.IOException;
+
+/**
+ * La llamada a Notion se descarta porque esperar turno superaría los límites configurados.
+ */
+public class NotionRateLimitException extends IOException {
+
+    public NotionRateLimitException(String message) {
+        super(message);
+    }
+}
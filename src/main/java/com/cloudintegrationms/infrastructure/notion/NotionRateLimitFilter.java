@@ -0,0 +1,65 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Equivalente no bloqueante de {@link NotionRateLimitInterceptor} para el WebClient:
+ * las esperas se programan con temporizadores en lugar de dormir un hilo.
+ */
+@RequiredArgsConstructor
+class NotionRateLimitFilter implements ExchangeFilterFunction {
+
+    private final NotionRateLimiter rateLimiter;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String accessToken = NotionTokens.fromAuthorizationHeader(request.headers().getFirst(HttpHeaders.AUTHORIZATION));
+        if (accessToken == null) {
+            return next.exchange(request);
+        }
+        return exchange(request, next, accessToken, 0);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, String accessToken, int attempt) {
+        return awaitTurn(accessToken)
+                .then(next.exchange(request))
+                .flatMap(response -> {
+                    if (response.statusCode().value() != 429) {
+                        return Mono.just(response);
+                    }
+                    Duration retryDelay = rateLimiter.retryDelay(
+                            response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER), attempt);
+                    if (retryDelay == null) {
+                        return Mono.just(response);
+                    }
+                    return response.releaseBody()
+                            .then(Mono.delay(retryDelay))
+                            .then(exchange(request, next, accessToken, attempt + 1));
+                });
+    }
+
+    private Mono<Void> awaitTurn(String accessToken) {
+        return Mono.defer(() -> {
+            try {
+                Duration wait = rateLimiter.reserve(accessToken);
+                if (wait.isZero()) {
+                    return Mono.empty();
+                }
+                return Mono.delay(wait)
+                        .doOnCancel(() -> rateLimiter.refund(accessToken))
+                        .doFinally(signal -> rateLimiter.leaveQueue())
+                        .then();
+            } catch (NotionRateLimitException e) {
+                return Mono.error(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import lombok.RequiredArgsConstructor;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+
+/**
+ * Aplica {@link NotionRateLimiter} a las llamadas bloqueantes: espera turno antes de enviar
+ * y reintenta las respuestas 429 según Retry-After.
+ */
+@RequiredArgsConstructor
+class NotionRateLimitInterceptor implements Interceptor {
+
+    private final NotionRateLimiter rateLimiter;
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String accessToken = NotionTokens.fromAuthorizationHeader(request.header("Authorization"));
+        if (accessToken == null) {
+            return chain.proceed(request);
+        }
+        for (int attempt = 0; ; attempt++) {
+            awaitTurn(accessToken);
+            Response response = chain.proceed(request);
+            if (response.code() != 429) {
+                return response;
+            }
+            Duration retryDelay = rateLimiter.retryDelay(response.header("Retry-After"), attempt);
+            if (retryDelay == null) {
+                return response;
+            }
+            response.close();
+            sleep(retryDelay);
+        }
+    }
+
+    private void awaitTurn(String accessToken) throws IOException {
+        Duration wait = rateLimiter.reserve(accessToken);
+        if (wait.isZero()) {
+            return;
+        }
+        try {
+            sleep(wait);
+        } catch (InterruptedIOException e) {
+            rateLimiter.refund(accessToken);
+            throw e;
+        } finally {
+            rateLimiter.leaveQueue();
+        }
+    }
+
+    private static void sleep(Duration duration) throws InterruptedIOException {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando turno para llamar a Notion");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.infrastructure.http.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limitador del lado cliente para la API de Notion: una cubeta de tokens por token de acceso
+ * (es decir, por workspace) ajustada al presupuesto de ~3 peticiones por segundo de Notion,
+ * y la política de reintentos ante respuestas 429 que respeta Retry-After.
+ */
+@Component
+public class NotionRateLimiter {
+
+    private final double requestsPerSecond;
+    private final int burst;
+    private final Duration maxWait;
+    private final int maxQueued;
+    private final int maxRetries;
+    private final Duration retryBaseDelay;
+    private final Duration maxRetryWait;
+
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter throttled;
+    private final Counter rejected;
+    private final Counter retried;
+
+    public NotionRateLimiter(
+            @Value("${cloud-integration.providers.notion.rate-limit.requests-per-second:3}") double requestsPerSecond,
+            @Value("${cloud-integration.providers.notion.rate-limit.burst:3}") int burst,
+            @Value("${cloud-integration.providers.notion.rate-limit.max-wait:10s}") Duration maxWait,
+            @Value("${cloud-integration.providers.notion.rate-limit.max-queued:200}") int maxQueued,
+            @Value("${cloud-integration.providers.notion.rate-limit.max-retries:3}") int maxRetries,
+            @Value("${cloud-integration.providers.notion.rate-limit.retry-base-delay:500ms}") Duration retryBaseDelay,
+            @Value("${cloud-integration.providers.notion.rate-limit.max-retry-wait:30s}") Duration maxRetryWait,
+            MeterRegistry meterRegistry) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.maxWait = maxWait;
+        this.maxQueued = maxQueued;
+        this.maxRetries = maxRetries;
+        this.retryBaseDelay = retryBaseDelay;
+        this.maxRetryWait = maxRetryWait;
+        this.throttled = Counter.builder("notion.ratelimit.calls").tag("result", "throttled").register(meterRegistry);
+        this.rejected = Counter.builder("notion.ratelimit.calls").tag("result", "rejected").register(meterRegistry);
+        this.retried = Counter.builder("notion.ratelimit.calls").tag("result", "retried").register(meterRegistry);
+        Gauge.builder("notion.ratelimit.queued", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Reserva turno para una llamada con el token indicado. Si hay que esperar, ocupa además un hueco en la
+     * cola de espera, que se libera con {@link #leaveQueue()}; si la llamada no llega a enviarse hay que
+     * devolver el turno con {@link #refund(String)}.
+     * @return tiempo que hay que esperar antes de enviar la llamada
+     * @throws NotionRateLimitException si la cola de espera está llena o la espera sería demasiado larga
+     */
+    public Duration reserve(String accessToken) throws NotionRateLimitException {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(NotionTokens.hash(accessToken),
+                key -> new TokenBucket(requestsPerSecond, burst, now));
+        long waitNanos = bucket.reserve(now, maxWait.toNanos());
+        if (waitNanos < 0) {
+            rejected.increment();
+            throw new NotionRateLimitException("Límite de peticiones a Notion superado para este workspace");
+        }
+        if (waitNanos == 0) {
+            return Duration.ZERO;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            // La llamada rechazada no se envía: su turno vuelve a la cubeta para no retrasar al resto
+            bucket.refund(System.nanoTime());
+            rejected.increment();
+            throw new NotionRateLimitException("Cola de espera de llamadas a Notion llena");
+        }
+        throttled.increment();
+        return Duration.ofNanos(waitNanos);
+    }
+
+    /**
+     * Devuelve el turno de una llamada que se canceló o se interrumpió mientras esperaba.
+     */
+    public void refund(String accessToken) {
+        TokenBucket bucket = buckets.getIfPresent(NotionTokens.hash(accessToken));
+        if (bucket != null) {
+            bucket.refund(System.nanoTime());
+        }
+    }
+
+    public void leaveQueue() {
+        queued.decrementAndGet();
+    }
+
+    /**
+     * Calcula la espera antes de reintentar una respuesta 429.
+     * @return la espera, o null si no procede reintentar
+     */
+    public Duration retryDelay(String retryAfterHeader, int attempt) {
+        if (attempt >= maxRetries) {
+            return null;
+        }
+        long backoffMillis = retryBaseDelay.toMillis() << attempt;
+        long delayMillis = Math.max(parseRetryAfter(retryAfterHeader).toMillis(), backoffMillis);
+        // Jitter para que los clientes frenados a la vez no vuelvan todos en el mismo instante
+        delayMillis += ThreadLocalRandom.current().nextLong(backoffMillis / 2 + 1);
+        if (delayMillis > maxRetryWait.toMillis()) {
+            return null;
+        }
+        retried.increment();
+        return Duration.ofMillis(delayMillis);
+    }
+
+    private static Duration parseRetryAfter(String retryAfterHeader) {
+        if (retryAfterHeader == null || retryAfterHeader.isBlank()) {
+            return Duration.ZERO;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(retryAfterHeader.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(retryAfterHeader.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration untilRetry = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+                return untilRetry.isNegative() ? Duration.ZERO : untilRetry;
+            } catch (Exception ignored) {
+                return Duration.ZERO;
+            }
+        }
+    }
+}
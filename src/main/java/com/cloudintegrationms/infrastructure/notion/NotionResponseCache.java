@@ -0,0 +1,153 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caché de respuestas de lectura de Notion (páginas y listados) por huella del token.
+ * <ul>
+ *   <li>Acotada por el tamaño aproximado en bytes de las respuestas, no por número de entradas.</li>
+ *   <li>Las peticiones concurrentes de una misma clave ausente comparten una única llamada.</li>
+ *   <li>Pasado el TTL, una entrada se revalida con la última edición del workspace antes de descargarla de nuevo.</li>
+ * </ul>
+ */
+@Component
+public class NotionResponseCache {
+
+    public enum Endpoint {
+        PAGE,
+        SEARCH
+    }
+
+    /**
+     * Respuesta descargada de Notion junto con el tamaño de su cuerpo.
+     */
+    public record Fetched<T>(T body, int bytes) {
+    }
+
+    private record Key(String tokenHash, Endpoint endpoint, String resource) {
+    }
+
+    private record Entry(Object body, int bytes, Instant fetchedAt) {
+    }
+
+    private enum Result {
+        HIT,
+        REVALIDATED,
+        MISS,
+        COALESCED
+    }
+
+    private final Cache<Key, Entry> cache;
+    private final Map<Endpoint, Duration> ttls = new EnumMap<>(Endpoint.class);
+    private final Map<Key, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    // Contadores registrados de antemano para no consultar el registro en cada acceso a la caché
+    private final Map<Endpoint, Map<Result, Counter>> counters = new EnumMap<>(Endpoint.class);
+
+    public NotionResponseCache(
+            @Value("${cloud-integration.cache.notion-responses.max-bytes:67108864}") long maxBytes,
+            @Value("${cloud-integration.cache.notion-responses.page-ttl:30s}") Duration pageTtl,
+            @Value("${cloud-integration.cache.notion-responses.search-ttl:10s}") Duration searchTtl,
+            @Value("${cloud-integration.cache.notion-responses.max-stale:10m}") Duration maxStale,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> entry.bytes())
+                .expireAfterWrite(maxStale)
+                .build();
+        this.ttls.put(Endpoint.PAGE, pageTtl);
+        this.ttls.put(Endpoint.SEARCH, searchTtl);
+        for (Endpoint endpoint : Endpoint.values()) {
+            Map<Result, Counter> byResult = new EnumMap<>(Result.class);
+            for (Result result : Result.values()) {
+                byResult.put(result, Counter.builder("notion.response.cache")
+                        .tag("endpoint", endpoint.name().toLowerCase())
+                        .tag("result", result.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            counters.put(endpoint, byResult);
+        }
+    }
+
+    /**
+     * Devuelve la respuesta cacheada o la obtiene con el loader.
+     * @param latestEdit última edición del workspace; solo se consulta al revalidar una entrada caducada
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Endpoint endpoint, String accessToken, String resource,
+                     Supplier<Fetched<T>> loader, Supplier<Instant> latestEdit) {
+        Key key = new Key(NotionTokens.hash(accessToken), endpoint, resource);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.fetchedAt().plus(ttls.get(endpoint)).isAfter(Instant.now())) {
+            count(endpoint, Result.HIT);
+            return (T) entry.body();
+        }
+        return (T) singleFlight(key, () -> {
+            if (entry != null && isUnchanged(entry, latestEdit.get())) {
+                count(endpoint, Result.REVALIDATED);
+                return new Entry(entry.body(), entry.bytes(), Instant.now());
+            }
+            count(endpoint, Result.MISS);
+            Fetched<T> fetched = loader.get();
+            return new Entry(fetched.body(), fetched.bytes(), Instant.now());
+        }).body();
+    }
+
+    /**
+     * Descarta todas las respuestas cacheadas para un token, p. ej. tras crear una página.
+     */
+    public void invalidate(String accessToken) {
+        String tokenHash = NotionTokens.hash(accessToken);
+        cache.asMap().keySet().removeIf(key -> key.tokenHash().equals(tokenHash));
+    }
+
+    /**
+     * Notion redondea last_edited_time al minuto, así que solo se puede asegurar que no hubo cambios
+     * si la última edición del workspace es anterior al minuto en que se descargó la entrada.
+     */
+    private static boolean isUnchanged(Entry entry, Instant latestEdit) {
+        return latestEdit != null && latestEdit.isBefore(entry.fetchedAt().truncatedTo(ChronoUnit.MINUTES));
+    }
+
+    private Entry singleFlight(Key key, Supplier<Entry> work) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            count(key.endpoint(), Result.COALESCED);
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Entry entry = work.get();
+            cache.put(key, entry);
+            mine.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void count(Endpoint endpoint, Result result) {
+        counters.get(endpoint).get(result).increment();
+    }
+}
@@ -1,25 +1,40 @@
 package com.cloudintegrationms.infrastructure.notion;
 
+import com.cloudintegrationms.domain.notion.NotionPage;
+import com.cloudintegrationms.domain.notion.NotionPageList;
 import com.cloudintegrationms.domain.notion.NotionService;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.infrastructure.http.ProviderHttpException;
+import com.cloudintegrationms.infrastructure.resilience.GuardsEachCall;
+import com.cloudintegrationms.infrastructure.resilience.ProviderCallGuardInterceptor;
+import com.cloudintegrationms.infrastructure.resilience.ProviderCallGuards;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonToken;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
+@Lazy
 @ConditionalOnProperty(name = "cloud-integration.providers.notion.enabled", havingValue = "true")
+@GuardsEachCall
 public class NotionServiceImpl implements NotionService {
 
     @Value("${notion.client.id}")
@@ -34,11 +49,22 @@ public class NotionServiceImpl implements NotionService {
     @Value("${notion.api.version}")
     private String notionApiVersion;
 
-    private final OkHttpClient client = new OkHttpClient();
+    private final OkHttpClient client;
+    private final NotionResponseCache responseCache;
     private static final String NOTION_API_BASE_URL = "https://api.notion.com/v1";
     private static final String NOTION_AUTH_URL = "https://api.notion.com/v1/oauth/authorize";
     private static final String NOTION_TOKEN_URL = "https://api.notion.com/v1/oauth/token";
-    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public NotionServiceImpl(OkHttpClient providerHttpClient, NotionRateLimiter rateLimiter,
+                             NotionResponseCache responseCache, ProviderCallGuards callGuards) {
+        this.responseCache = responseCache;
+        OkHttpClient.Builder builder = providerHttpClient.newBuilder();
+        // El limitador va primero para que la espera de turno no ocupe plazas del límite por host, y el
+        // bulkhead y el circuito al final para que solo cuenten el intercambio con Notion de cada intento
+        builder.interceptors().add(0, new NotionRateLimitInterceptor(rateLimiter));
+        builder.addInterceptor(new ProviderCallGuardInterceptor(callGuards.forProvider(CloudProvider.NOTION.key())));
+        this.client = builder.build();
+    }
 
     @Override
     public String getAuthorizationUrl(String state) {
@@ -78,32 +104,31 @@ public class NotionServiceImpl implements NotionService {
                 if (!response.isSuccessful()) {
                     String errorBody = response.body() != null ? response.body().string() : "Unknown error";
                     log.error("Error exchanging code for tokens: {}", errorBody);
-                    throw new IOException("Error al intercambiar código por tokens: " + response.code());
+                    throw new ProviderHttpException(response.code(), "Error al intercambiar código por tokens: " + response.code());
                 }
                 
-                String responseBody = response.body().string();
-                Map<String, Object> responseMap = objectMapper.readValue(responseBody, Map.class);
+                NotionTokenResponse tokens = NotionJson.TOKEN.readValue(response.body().byteStream());
                 
                 Map<String, String> result = new HashMap<>();
-                result.put("access_token", (String) responseMap.get("access_token"));
+                result.put("access_token", tokens.accessToken());
                 
                 // Extraer información del workspace si está disponible
-                if (responseMap.containsKey("workspace_id")) {
-                    result.put("workspace_id", (String) responseMap.get("workspace_id"));
+                if (tokens.workspaceId() != null) {
+                    result.put("workspace_id", tokens.workspaceId());
                 }
-                if (responseMap.containsKey("workspace_name")) {
-                    result.put("workspace_name", (String) responseMap.get("workspace_name"));
+                if (tokens.workspaceName() != null) {
+                    result.put("workspace_name", tokens.workspaceName());
                 }
-                if (responseMap.containsKey("workspace_icon")) {
-                    result.put("workspace_icon", (String) responseMap.get("workspace_icon"));
+                if (tokens.workspaceIcon() != null) {
+                    result.put("workspace_icon", tokens.workspaceIcon());
                 }
-                if (responseMap.containsKey("bot_id")) {
-                    result.put("bot_id", (String) responseMap.get("bot_id"));
+                if (tokens.botId() != null) {
+                    result.put("bot_id", tokens.botId());
                 }
                 
                 return result;
             }
-        } catch (Exception e) {
+        } catch (IOException e) {
             log.error("Error exchanging code for tokens", e);
             throw new RuntimeException("Error al intercambiar código por tokens", e);
         }
@@ -112,7 +137,9 @@ public class NotionServiceImpl implements NotionService {
     @Override
     public String createPage(String parentId, String title, String content, String accessToken) {
         try {
-            String jsonBody = buildCreatePageRequest(parentId, title, content);
+            List<NotionPayloads.Block> blocks = NotionPayloads.paragraphs(content);
+            int firstChunk = Math.min(blocks.size(), NotionPayloads.MAX_BLOCKS_PER_REQUEST);
+            String jsonBody = buildCreatePageRequest(parentId, title, blocks.subList(0, firstChunk));
             
             RequestBody body = RequestBody.create(jsonBody, MediaType.parse("application/json"));
             Request request = new Request.Builder()
@@ -123,44 +150,60 @@ public class NotionServiceImpl implements NotionService {
                     .post(body)
                     .build();
 
+            String pageId;
             try (Response response = client.newCall(request).execute()) {
                 if (!response.isSuccessful()) {
-                    throw new IOException("Error al crear página en Notion: " + response.code());
+                    throw new ProviderHttpException(response.code(), "Error al crear página en Notion: " + response.code());
                 }
                 
-                String responseBody = response.body().string();
-                Map<String, Object> responseMap = objectMapper.readValue(responseBody, Map.class);
-                return (String) responseMap.get("id");
+                pageId = NotionJson.PAGE.<NotionPage>readValue(response.body().byteStream()).getId();
+                // La nueva página debe aparecer en los listados cacheados para este token
+                responseCache.invalidate(accessToken);
             }
-        } catch (Exception e) {
+
+            // Notion admite como máximo 100 bloques por petición; el resto se añade por tandas
+            for (int from = firstChunk; from < blocks.size(); from += NotionPayloads.MAX_BLOCKS_PER_REQUEST) {
+                int to = Math.min(from + NotionPayloads.MAX_BLOCKS_PER_REQUEST, blocks.size());
+                try {
+                    appendBlocks(pageId, blocks.subList(from, to), accessToken);
+                } catch (IOException | RuntimeException e) {
+                    throw new NotionPartialPageException(pageId, "La página " + pageId
+                            + " se creó en Notion, pero falló al añadir su contenido a partir del bloque " + from, e);
+                }
+            }
+            return pageId;
+        } catch (NotionPartialPageException e) {
+            log.error("Página {} creada en Notion con el contenido incompleto", e.getPageId(), e);
+            throw e;
+        } catch (IOException e) {
             log.error("Error al crear página en Notion", e);
             throw new RuntimeException("Error al crear página en Notion", e);
         }
     }
 
-    private String buildCreatePageRequest(String parentId, String title, String content) {
-        // Este es un ejemplo simplificado de la estructura para crear una página
-        // En una implementación completa, habría que construir el cuerpo de la solicitud
-        // según la estructura de bloques de Notion
+    private void appendBlocks(String pageId, List<NotionPayloads.Block> blocks, String accessToken) throws IOException {
+        RequestBody body = RequestBody.create(
+                NotionJson.WRITER.writeValueAsBytes(new NotionPayloads.AppendChildren(blocks)),
+                MediaType.parse("application/json"));
+        Request request = new Request.Builder()
+                .url(NOTION_API_BASE_URL + "/blocks/" + pageId + "/children")
+                .addHeader("Authorization", "Bearer " + accessToken)
+                .addHeader("Notion-Version", notionApiVersion)
+                .patch(body)
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new ProviderHttpException(response.code(),
+                        "Error al añadir contenido a la página " + pageId + " de Notion: " + response.code());
+            }
+        }
+    }
+
+    static String buildCreatePageRequest(String parentId, String title, List<NotionPayloads.Block> children) {
         try {
-            Map<String, Object> requestBody = new HashMap<>();
-            
-            // Configurar el parent
-            Map<String, Object> parent = new HashMap<>();
-            parent.put("page_id", parentId);
-            requestBody.put("parent", parent);
-            
-            // Propiedades (título)
-            Map<String, Object> properties = new HashMap<>();
-            Map<String, Object> titleProp = new HashMap<>();
-            Map<String, Object> titleContent = new HashMap<>();
-            titleContent.put("content", title);
-            titleProp.put("title", new Object[]{titleContent});
-            properties.put("title", titleProp);
-            requestBody.put("properties", properties);
-            
             // Convertir a JSON
-            return objectMapper.writeValueAsString(requestBody);
+            return NotionJson.WRITER.writeValueAsString(NotionPayloads.createPage(parentId, title, children));
         } catch (JsonProcessingException e) {
             log.error("Error al construir el cuerpo de la solicitud para crear página", e);
             throw new RuntimeException("Error al construir el cuerpo de la solicitud para crear página", e);
@@ -169,6 +212,11 @@ public class NotionServiceImpl implements NotionService {
 
     @Override
     public Map<String, Object> getPage(String pageId, String accessToken) {
+        return responseCache.get(NotionResponseCache.Endpoint.PAGE, accessToken, pageId,
+                () -> fetchPage(pageId, accessToken), () -> latestEditTime(accessToken));
+    }
+
+    private NotionResponseCache.Fetched<Map<String, Object>> fetchPage(String pageId, String accessToken) {
         try {
             Request request = new Request.Builder()
                     .url(NOTION_API_BASE_URL + "/pages/" + pageId)
@@ -179,46 +227,122 @@ public class NotionServiceImpl implements NotionService {
 
             try (Response response = client.newCall(request).execute()) {
                 if (!response.isSuccessful()) {
-                    throw new IOException("Error al obtener página de Notion: " + response.code());
+                    throw new ProviderHttpException(response.code(), "Error al obtener página de Notion: " + response.code());
                 }
                 
-                String responseBody = response.body().string();
-                return objectMapper.readValue(responseBody, Map.class);
+                // La página se devuelve completa al cliente, así que se conserva como mapa
+                byte[] responseBody = response.body().bytes();
+                return new NotionResponseCache.Fetched<>(NotionJson.MAP.readValue(responseBody), responseBody.length);
             }
-        } catch (Exception e) {
+        } catch (IOException e) {
             log.error("Error al obtener página de Notion", e);
             throw new RuntimeException("Error al obtener página de Notion", e);
         }
     }
 
     @Override
-    public Map<String, Object> listPages(String accessToken) {
-        try {
-            // Utilizamos la API de búsqueda para listar las páginas
-            String jsonBody = "{\"filter\": {\"property\": \"object\", \"value\": \"page\"}}";
-            
-            RequestBody body = RequestBody.create(jsonBody, MediaType.parse("application/json"));
-            Request request = new Request.Builder()
-                    .url(NOTION_API_BASE_URL + "/search")
-                    .addHeader("Authorization", "Bearer " + accessToken)
-                    .addHeader("Notion-Version", notionApiVersion)
-                    .post(body)
-                    .build();
+    public NotionPageList listPages(String accessToken, String query, String startCursor, int pageSize) {
+        NotionPayloads.Search payload = NotionPayloads.searchPages(query, startCursor, pageSize);
+        return responseCache.get(NotionResponseCache.Endpoint.SEARCH, accessToken, payload.toString(),
+                () -> fetchPages(accessToken, payload), () -> latestEditTime(accessToken));
+    }
 
-            try (Response response = client.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new IOException("Error al listar páginas de Notion: " + response.code());
-                }
-                
-                String responseBody = response.body().string();
-                return objectMapper.readValue(responseBody, Map.class);
+    private NotionResponseCache.Fetched<NotionPageList> fetchPages(String accessToken, NotionPayloads.Search payload) {
+        try (Response response = client.newCall(buildSearchRequest(accessToken, payload)).execute()) {
+            if (!response.isSuccessful()) {
+                throw new ProviderHttpException(response.code(), "Error al listar páginas de Notion: " + response.code());
             }
-        } catch (Exception e) {
+
+            byte[] responseBody = response.body().bytes();
+            return new NotionResponseCache.Fetched<>(NotionJson.PAGE_LIST.readValue(responseBody), responseBody.length);
+        } catch (IOException e) {
             log.error("Error al listar páginas de Notion", e);
             throw new RuntimeException("Error al listar páginas de Notion", e);
         }
     }
 
+    @Override
+    public void streamPages(String accessToken, String query, int pageSize, Consumer<NotionPage> consumer) {
+        String cursor = null;
+        do {
+            // Cada página es una petición aparte, con su propio permiso del bulkhead
+            cursor = fetchSearchResults(accessToken, NotionPayloads.searchPages(query, cursor, pageSize), consumer);
+        } while (cursor != null);
+    }
+
+    private String fetchSearchResults(String accessToken, NotionPayloads.Search payload, Consumer<NotionPage> consumer) {
+        try (Response response = client.newCall(buildSearchRequest(accessToken, payload)).execute()) {
+            if (!response.isSuccessful()) {
+                throw new ProviderHttpException(response.code(), "Error al listar páginas de Notion: " + response.code());
+            }
+            return readSearchResults(response.body().byteStream(), consumer);
+        } catch (IOException e) {
+            log.error("Error al listar páginas de Notion", e);
+            throw new RuntimeException("Error al listar páginas de Notion", e);
+        }
+    }
+
+    private Request buildSearchRequest(String accessToken, NotionPayloads.Search payload) throws JsonProcessingException {
+        // Utilizamos la API de búsqueda para listar las páginas
+        RequestBody body = RequestBody.create(NotionJson.WRITER.writeValueAsBytes(payload), MediaType.parse("application/json"));
+        return new Request.Builder()
+                .url(NOTION_API_BASE_URL + "/search")
+                .addHeader("Authorization", "Bearer " + accessToken)
+                .addHeader("Notion-Version", notionApiVersion)
+                .post(body)
+                .build();
+    }
+
+    /**
+     * Recorre la respuesta de /search con el parser en streaming, entregando cada resultado
+     * sin cargar el cuerpo completo en memoria.
+     * @return next_cursor si quedan más resultados, o null si es la última página
+     */
+    private String readSearchResults(InputStream inputStream, Consumer<NotionPage> consumer) throws IOException {
+        String nextCursor = null;
+        boolean hasMore = false;
+        try (JsonParser parser = NotionJson.MAPPER.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Respuesta de búsqueda de Notion inesperada");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "results" -> {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            consumer.accept(NotionJson.PAGE.readValue(parser));
+                        }
+                    }
+                    case "next_cursor" -> nextCursor = parser.getValueAsString();
+                    case "has_more" -> hasMore = parser.getValueAsBoolean();
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return hasMore ? nextCursor : null;
+    }
+
+    /**
+     * Obtiene la fecha de la última edición visible para el token, usada para revalidar respuestas cacheadas.
+     * Devuelve null si no se puede determinar, lo que fuerza una descarga completa.
+     */
+    private Instant latestEditTime(String accessToken) {
+        try (Response response = client.newCall(buildSearchRequest(accessToken, NotionPayloads.LATEST_EDIT)).execute()) {
+            if (!response.isSuccessful()) {
+                return null;
+            }
+            List<NotionPage> results = NotionJson.PAGE_LIST.<NotionPageList>readValue(response.body().byteStream()).getResults();
+            if (results.isEmpty()) {
+                return Instant.EPOCH;
+            }
+            return results.get(0).getLastEditedTime();
+        } catch (Exception e) {
+            log.warn("No se pudo revalidar la caché de Notion: {}", e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public boolean validateToken(String accessToken) {
         try {
@@ -230,11 +354,18 @@ public class NotionServiceImpl implements NotionService {
                     .build();
 
             try (Response response = client.newCall(request).execute()) {
-                return response.isSuccessful();
+                if (response.isSuccessful()) {
+                    return true;
+                }
+                if (NotionTokens.isRejected(response.code())) {
+                    return false;
+                }
+                throw new ProviderHttpException(response.code(), "Error al validar token de Notion: " + response.code());
             }
-        } catch (Exception e) {
+        } catch (IOException e) {
+            // Un fallo de red o del proveedor no dice nada del token: se propaga para no darlo por desconectado
             log.error("Error al validar token de Notion", e);
-            return false;
+            throw new UncheckedIOException("Error al validar token de Notion", e);
         }
     }
 
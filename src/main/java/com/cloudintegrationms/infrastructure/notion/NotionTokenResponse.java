@@ -0,0 +1,8 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+/**
+ * Respuesta del intercambio de código OAuth de Notion; se lee con nombres snake_case.
+ */
+record NotionTokenResponse(String accessToken, String workspaceId, String workspaceName,
+                           String workspaceIcon, String botId) {
+}
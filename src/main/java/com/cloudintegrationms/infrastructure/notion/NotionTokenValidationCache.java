@@ -0,0 +1,122 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.server.domain.event.CloudIntegrationChangedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Caché del resultado de validar un token de Notion, indexada por el hash del token.
+ * Los tokens válidos se recuerdan más tiempo que los inválidos, y las validaciones
+ * concurrentes de un mismo token comparten una única llamada a Notion. Solo se guarda una respuesta
+ * definitiva: si el validador falla (red, timeout, error del proveedor) no queda nada en caché.
+ */
+@Component
+public class NotionTokenValidationCache {
+
+    private static final String PROVIDER = CloudProvider.NOTION.key();
+
+    private final AsyncCache<String, Boolean> results;
+    // Último token validado por usuario, para poder invalidarlo cuando cambian sus integraciones
+    private final Cache<String, String> tokenHashByUser;
+
+    public NotionTokenValidationCache(
+            @Value("${cloud-integration.cache.token-validation.max-size:10000}") long maxSize,
+            @Value("${cloud-integration.cache.token-validation.positive-ttl:5m}") Duration positiveTtl,
+            @Value("${cloud-integration.cache.token-validation.negative-ttl:30s}") Duration negativeTtl,
+            MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ValidationExpiry(positiveTtl, negativeTtl))
+                .recordStats()
+                .buildAsync();
+        this.tokenHashByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(positiveTtl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "notionTokenValidation");
+    }
+
+    public boolean isValid(String userId, String accessToken, Predicate<String> validator) {
+        String tokenHash = remember(userId, accessToken);
+        CompletableFuture<Boolean> cached = results.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached.join();
+        }
+        // Se reserva la entrada con un futuro pendiente y se valida fuera del compute del mapa, para no
+        // retener el bloqueo del bin durante la llamada a Notion; las demás llamadas esperan ese futuro
+        CompletableFuture<Boolean> pending = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = results.asMap().putIfAbsent(tokenHash, pending);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            boolean valid = validator.test(accessToken);
+            pending.complete(valid);
+            return valid;
+        } catch (RuntimeException | Error e) {
+            // Un futuro fallido se retira de la caché, así que el siguiente intento vuelve a validar
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public CompletableFuture<Boolean> isValidAsync(String userId, String accessToken,
+                                                   Function<String, CompletableFuture<Boolean>> validator) {
+        String tokenHash = remember(userId, accessToken);
+        return results.get(tokenHash, (key, executor) -> validator.apply(accessToken));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIntegrationChanged(CloudIntegrationChangedEvent event) {
+        if (event.provider() != null && !PROVIDER.equals(event.provider())) {
+            return;
+        }
+        if (event.userId() == null) {
+            results.synchronous().invalidateAll();
+            tokenHashByUser.invalidateAll();
+            return;
+        }
+        String tokenHash = tokenHashByUser.getIfPresent(event.userId());
+        if (tokenHash != null) {
+            results.synchronous().invalidate(tokenHash);
+            tokenHashByUser.invalidate(event.userId());
+        }
+    }
+
+    private String remember(String userId, String accessToken) {
+        String tokenHash = NotionTokens.hash(accessToken);
+        tokenHashByUser.put(userId, tokenHash);
+        return tokenHash;
+    }
+
+    private record ValidationExpiry(Duration positiveTtl, Duration negativeTtl) implements Expiry<String, Boolean> {
+
+        @Override
+        public long expireAfterCreate(String key, Boolean valid, long currentTime) {
+            return (valid ? positiveTtl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Boolean valid, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, valid, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Boolean valid, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utilidades sobre tokens de acceso de Notion.
+ */
+final class NotionTokens {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private NotionTokens() {
+    }
+
+    /**
+     * Huella SHA-256 del token, para indexar cachés y límites sin guardar el token en claro.
+     */
+    static String hash(String accessToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(accessToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Respuestas con las que Notion rechaza el token en sí; cualquier otro error no permite concluir que sea inválido.
+     */
+    static boolean isRejected(int statusCode) {
+        return statusCode == 401 || statusCode == 403;
+    }
+
+    /**
+     * Extrae el token de una cabecera Authorization; nulo si no es de tipo Bearer.
+     */
+    static String fromAuthorizationHeader(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return authorization.substring(BEARER_PREFIX.length());
+    }
+}
@@ -0,0 +1,281 @@
+package com.cloudintegrationms.infrastructure.provider;
+
+import com.cloudintegrationms.domain.provider.CloudProviderAdapter;
+import com.cloudintegrationms.domain.provider.CloudProviderAuthorization;
+import com.cloudintegrationms.infrastructure.resilience.ProviderUnavailableException;
+import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
+import com.cloudintegrationms.server.domain.model.CloudIntegration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.view.RedirectView;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rutas comunes a todos los proveedores: autorización OAuth, estado de la conexión y archivos.
+ * El proveedor de la ruta se resuelve en {@link CloudProviderRegistry}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/cloud/{provider}")
+@RequiredArgsConstructor
+public class CloudProviderController {
+
+    private final CloudProviderRegistry providerRegistry;
+    private final OAuthStateSigner oauthStateSigner;
+    private final CloudIntegrationUseCase cloudIntegrationUseCase;
+    private final MeterRegistry meterRegistry;
+
+    // Medidores de subida por combinación de etiquetas, para no consultar el registro en cada subida
+    private final Map<UploadMeterKey, Timer> uploadTimers = new ConcurrentHashMap<>();
+    private final Map<UploadMeterKey, DistributionSummary> uploadBytes = new ConcurrentHashMap<>();
+
+    private record UploadMeterKey(String provider, String mode, String outcome) {
+    }
+
+    @Value("${cloud-integration.uploads.max-size:2GB}")
+    private DataSize maxUploadSize;
+
+    /**
+     * Inicia el flujo de autorización del proveedor
+     */
+    @GetMapping("/auth")
+    public ResponseEntity<Map<String, String>> getAuthorizationUrl(
+            @PathVariable String provider, @RequestParam String userId) {
+        Optional<CloudProviderAdapter> adapter = providerRegistry.find(provider);
+        if (adapter.isEmpty()) {
+            return unknownProvider(provider);
+        }
+        try {
+            // El state firmado lleva el userId y un nonce contra CSRF, así el callback no depende de la sesión
+            String state = oauthStateSigner.issue(adapter.get().provider().key(), userId);
+
+            return ResponseEntity.ok(Map.of("authUrl", adapter.get().getAuthorizationUrl(state)));
+        } catch (Exception e) {
+            log.error("Error al generar URL de autorización de {}", provider, e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Error al generar URL de autorización de " + provider));
+        }
+    }
+
+    /**
+     * Maneja la redirección del proveedor después de la autorización
+     */
+    @GetMapping("/callback")
+    public RedirectView handleCallback(@PathVariable String provider,
+                                 @RequestParam(required = false) String code,
+                                 @RequestParam(required = false) String error,
+                                 @RequestParam(required = false) String state) {
+        CloudProviderAdapter adapter = providerRegistry.find(provider)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Proveedor no soportado: " + provider));
+        if (error != null) {
+            log.error("Error en callback OAuth de {}: {}", provider, error);
+            return new RedirectView(adapter.getAuthFailureRedirect());
+        }
+        // Verificar el state firmado para prevenir ataques CSRF y recuperar el usuario
+        Optional<String> verifiedUserId = oauthStateSigner.verify(adapter.provider().key(), state);
+        if (verifiedUserId.isEmpty()) {
+            return new RedirectView(adapter.getAuthFailureRedirect());
+        }
+        String userId = verifiedUserId.get();
+
+        try {
+            CloudProviderAuthorization authorization = adapter.completeAuthorization(code);
+
+            cloudIntegrationUseCase.createIntegration(CloudIntegration.builder()
+                    .id(UUID.randomUUID().toString())
+                    .userId(userId)
+                    .provider(adapter.provider().key())
+                    .credentials(authorization.credentials())
+                    .expiresAt(authorization.expiresAt())
+                    .active(true)
+                    .build());
+
+            log.info("Usuario {} autenticado exitosamente con {}", userId, provider);
+            return new RedirectView(authorization.successRedirect());
+        } catch (Exception e) {
+            log.error("Error procesando callback de OAuth de {}", provider, e);
+            return new RedirectView(adapter.getAuthFailureRedirect());
+        }
+    }
+
+    /**
+     * Desconecta la integración del usuario con el proveedor
+     */
+    @PostMapping("/disconnect")
+    public ResponseEntity<Map<String, String>> disconnect(@PathVariable String provider, @RequestBody Map<String, String> request) {
+        Optional<CloudProviderAdapter> adapter = providerRegistry.find(provider);
+        if (adapter.isEmpty()) {
+            return unknownProvider(provider);
+        }
+        String userId = request.get("userId");
+        if (userId == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "userId es requerido"));
+        }
+
+        try {
+            // Desactivar en bloque las integraciones activas del proveedor para este usuario
+            int deactivated = cloudIntegrationUseCase.deactivateIntegrations(userId, adapter.get().provider().key());
+            log.info("Desactivadas {} integraciones de {} para el usuario {}", deactivated, provider, userId);
+
+            return ResponseEntity.ok(Map.of("message", "Integración con " + provider + " desconectada exitosamente"));
+        } catch (Exception e) {
+            log.error("Error al desconectar integración con {} para el usuario {}", provider, userId, e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Error al desconectar: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Verifica si un usuario está autenticado con el proveedor
+     */
+    @GetMapping("/check-auth")
+    public ResponseEntity<Map<String, Object>> checkAuth(@PathVariable String provider, @RequestParam String userId) {
+        Optional<CloudProviderAdapter> adapter = providerRegistry.find(provider);
+        if (adapter.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Proveedor no soportado: " + provider));
+        }
+        try {
+            boolean authenticated = cloudIntegrationUseCase.existsActiveIntegration(userId, adapter.get().provider().key());
+            return ResponseEntity.ok(Map.of(
+                "authenticated", authenticated,
+                "provider", adapter.get().provider().key()
+            ));
+        } catch (Exception e) {
+            log.error("Error al verificar autenticación de {} para el usuario {}", provider, userId, e);
+            return ResponseEntity.ok(Map.of("authenticated", false));
+        }
+    }
+
+    /**
+     * Sube un archivo al proveedor leyendo el stream de la petición multipart
+     */
+    @PostMapping("/user-files")
+    public ResponseEntity<Map<String, String>> uploadFile(
+            @PathVariable String provider,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam String userId) {
+        return withConnectedAdapter(provider, userId, adapter -> {
+            try (InputStream inputStream = file.getInputStream()) {
+                return upload(adapter, userId, "multipart", inputStream, file.getSize(),
+                        file.getOriginalFilename(), file.getContentType());
+            }
+        });
+    }
+
+    /**
+     * Sube un archivo leyendo directamente el cuerpo de la petición, sin el volcado previo a disco
+     * del multipart. El cuerpo se lee al ritmo al que el proveedor acepta los fragmentos.
+     * Requiere Content-Length; Content-Type se toma como tipo MIME del archivo.
+     */
+    @PutMapping("/user-files/stream")
+    public ResponseEntity<Map<String, String>> streamFile(
+            @PathVariable String provider,
+            @RequestParam String userId,
+            @RequestParam String fileName,
+            HttpServletRequest request) {
+        long size = request.getContentLengthLong();
+        if (size < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED)
+                    .body(Map.of("error", "Se requiere la cabecera Content-Length"));
+        }
+        if (size > maxUploadSize.toBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("error", "El archivo supera el tamaño máximo de " + maxUploadSize));
+        }
+        return withConnectedAdapter(provider, userId, adapter -> upload(adapter, userId, "stream",
+                request.getInputStream(), size, fileName, request.getContentType()));
+    }
+
+    @GetMapping("/user-files/{fileId}/view-url")
+    public ResponseEntity<Map<String, String>> getFileViewUrl(
+            @PathVariable String provider, @PathVariable String fileId, @RequestParam String userId) {
+        return withConnectedAdapter(provider, userId,
+                adapter -> ResponseEntity.ok(Map.of("viewUrl", adapter.getFileViewUrl(userId, fileId))));
+    }
+
+    @DeleteMapping("/user-files/{fileId}")
+    public ResponseEntity<Map<String, String>> deleteFile(
+            @PathVariable String provider, @PathVariable String fileId, @RequestParam String userId) {
+        return withConnectedAdapter(provider, userId, adapter -> {
+            adapter.deleteFile(userId, fileId);
+            return ResponseEntity.ok(Map.of("message", "Archivo eliminado con éxito"));
+        });
+    }
+
+    private ResponseEntity<Map<String, String>> upload(CloudProviderAdapter adapter, String userId, String mode,
+                                                       InputStream inputStream, long size,
+                                                       String fileName, String mimeType) {
+        String provider = adapter.provider().key();
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            String fileId = adapter.uploadFile(userId, inputStream, size, fileName, mimeType);
+            outcome = "success";
+            // El caudal por proveedor sale de provider.upload.bytes entre el tiempo de provider.upload
+            uploadBytes.computeIfAbsent(new UploadMeterKey(provider, mode, null), key ->
+                            DistributionSummary.builder("provider.upload.bytes")
+                                    .baseUnit("bytes")
+                                    .tags("provider", key.provider(), "mode", key.mode())
+                                    .register(meterRegistry))
+                    .record(size);
+            return ResponseEntity.ok(Map.of(
+                    "fileId", fileId,
+                    "viewUrl", adapter.getFileViewUrl(userId, fileId)
+            ));
+        } finally {
+            uploadTimers.computeIfAbsent(new UploadMeterKey(provider, mode, outcome), key ->
+                            Timer.builder("provider.upload")
+                                    .tags("provider", key.provider(), "mode", key.mode(), "outcome", key.outcome())
+                                    .register(meterRegistry))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> withConnectedAdapter(
+            String provider, String userId,
+            FileOperation operation) {
+        Optional<CloudProviderAdapter> adapter = providerRegistry.find(provider);
+        if (adapter.isEmpty()) {
+            return unknownProvider(provider);
+        }
+        if (!cloudIntegrationUseCase.existsActiveIntegration(userId, adapter.get().provider().key())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Usuario no conectado con " + provider));
+        }
+        try {
+            return operation.apply(adapter.get());
+        } catch (ProviderUnavailableException e) {
+            // Se resuelve como 503 estructurado en ProviderExceptionHandler
+            throw e;
+        } catch (UnsupportedOperationException e) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error en la operación de archivos de {}", provider, e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Error en la operación: " + e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> unknownProvider(String provider) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Proveedor no soportado: " + provider));
+    }
+
+    @FunctionalInterface
+    private interface FileOperation {
+        ResponseEntity<Map<String, String>> apply(CloudProviderAdapter adapter) throws Exception;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cloudintegrationms.infrastructure.provider;
+
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.domain.provider.CloudProviderAdapter;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Adaptadores de los proveedores habilitados, indexados por {@link CloudProvider}.
+ * Los adaptadores son ligeros: el cliente de cada proveedor se crea la primera vez que se usa.
+ */
+@Component
+public class CloudProviderRegistry {
+
+    private final Map<CloudProvider, CloudProviderAdapter> adapters = new EnumMap<>(CloudProvider.class);
+
+    public CloudProviderRegistry(List<CloudProviderAdapter> adapters) {
+        for (CloudProviderAdapter adapter : adapters) {
+            CloudProviderAdapter previous = this.adapters.put(adapter.provider(), adapter);
+            if (previous != null) {
+                throw new IllegalStateException("Adaptador duplicado para el proveedor " + adapter.provider().key());
+            }
+        }
+    }
+
+    public Optional<CloudProviderAdapter> find(String providerKey) {
+        return CloudProvider.fromKey(providerKey).map(adapters::get);
+    }
+}
@@ -0,0 +1,188 @@
+package com.cloudintegrationms.infrastructure.provider;
+
+import com.cloudintegrationms.domain.provider.CredentialRefresher;
+import com.cloudintegrationms.domain.provider.CredentialRevokedException;
+import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
+import com.cloudintegrationms.server.domain.model.CloudIntegration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Renueva en segundo plano las credenciales que caducan dentro del margen configurado, para que
+ * ninguna petición de usuario tenga que esperar a un refresco. Recorre por lotes el índice de
+ * caducidad de cada proveedor, con un límite de refrescos simultáneos por proveedor y un retardo
+ * aleatorio por integración que reparte en el tiempo los tokens emitidos a la vez.
+ * Cada instancia reserva en la base de datos la integración antes de refrescarla, así que con varias
+ * réplicas cada token se renueva una sola vez. Un refresco fallido se reintenta con espera exponencial,
+ * y si el proveedor rechaza la autorización la integración se desactiva hasta que el usuario reconecte.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cloud-integration.credentials.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class CredentialRefreshScheduler implements SchedulingConfigurer {
+
+    private static final List<String> OUTCOMES = List.of("success", "failure", "skipped", "revoked");
+
+    private final List<CredentialRefresher> refreshers;
+    private final CloudIntegrationUseCase cloudIntegrationUseCase;
+    private final Environment environment;
+    private final Duration interval;
+    private final Duration initialDelay;
+    private final Duration leadTime;
+    private final Duration jitter;
+    private final int batchSize;
+    private final int defaultConcurrency;
+    private final Duration claimTimeout;
+    private final Duration retryBaseDelay;
+    private final Duration maxRetryDelay;
+    // Contadores de resultado por proveedor, registrados una vez al arrancar
+    private final Map<String, Map<String, Counter>> refreshCounters;
+
+    public CredentialRefreshScheduler(
+            List<CredentialRefresher> refreshers,
+            CloudIntegrationUseCase cloudIntegrationUseCase,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${cloud-integration.credentials.refresh.interval:1m}") Duration interval,
+            @Value("${cloud-integration.credentials.refresh.initial-delay:30s}") Duration initialDelay,
+            @Value("${cloud-integration.credentials.refresh.lead-time:10m}") Duration leadTime,
+            @Value("${cloud-integration.credentials.refresh.jitter:5s}") Duration jitter,
+            @Value("${cloud-integration.credentials.refresh.batch-size:200}") int batchSize,
+            @Value("${cloud-integration.credentials.refresh.default-concurrency:4}") int defaultConcurrency,
+            @Value("${cloud-integration.credentials.refresh.claim-timeout:5m}") Duration claimTimeout,
+            @Value("${cloud-integration.credentials.refresh.retry-base-delay:1m}") Duration retryBaseDelay,
+            @Value("${cloud-integration.credentials.refresh.max-retry-delay:1h}") Duration maxRetryDelay) {
+        this.refreshers = refreshers;
+        this.cloudIntegrationUseCase = cloudIntegrationUseCase;
+        this.environment = environment;
+        this.interval = interval;
+        this.initialDelay = initialDelay;
+        this.leadTime = leadTime;
+        this.jitter = jitter;
+        this.batchSize = batchSize;
+        this.defaultConcurrency = defaultConcurrency;
+        this.claimTimeout = claimTimeout;
+        this.retryBaseDelay = retryBaseDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.refreshCounters = refreshers.stream()
+                .map(refresher -> refresher.provider().key())
+                .distinct()
+                .collect(Collectors.toUnmodifiableMap(provider -> provider, provider -> OUTCOMES.stream()
+                        .collect(Collectors.toUnmodifiableMap(outcome -> outcome, outcome -> Counter
+                                .builder("provider.credentials.refresh")
+                                .tags("provider", provider, "outcome", outcome)
+                                .register(meterRegistry)))));
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        // Se registra aquí y no con @Scheduled para admitir duraciones como 1m, igual que el resto de la configuración
+        taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::refreshExpiring, interval, initialDelay));
+    }
+
+    public void refreshExpiring() {
+        for (CredentialRefresher refresher : refreshers) {
+            try {
+                int refreshed = refreshExpiring(refresher);
+                if (refreshed > 0) {
+                    log.info("Renovadas {} credenciales de {} antes de caducar", refreshed, refresher.provider().key());
+                }
+            } catch (Exception e) {
+                // Un proveedor con problemas no debe impedir el refresco de los demás
+                log.error("Error en el refresco programado de credenciales de {}", refresher.provider().key(), e);
+            }
+        }
+    }
+
+    /**
+     * Renueva las credenciales del proveedor que caducan antes de ahora más el margen
+     * @return número de integraciones renovadas
+     */
+    int refreshExpiring(CredentialRefresher refresher) {
+        String provider = refresher.provider().key();
+        Instant before = Instant.now().plus(leadTime);
+        Semaphore permits = new Semaphore(environment.getProperty(
+                "cloud-integration.credentials.refresh.concurrency." + provider, Integer.class, defaultConcurrency));
+        AtomicInteger refreshed = new AtomicInteger();
+
+        CloudIntegration after = null;
+        List<CloudIntegration> batch;
+        do {
+            batch = cloudIntegrationUseCase.getExpiringIntegrations(provider, before, after, batchSize);
+            // Cada lote termina antes de leer el siguiente, así no se acumulan refrescos pendientes
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (CloudIntegration integration : batch) {
+                    executor.submit(() -> {
+                        if (refresh(refresher, integration, before, permits)) {
+                            refreshed.incrementAndGet();
+                        }
+                    });
+                }
+            }
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == batchSize);
+        return refreshed.get();
+    }
+
+    private boolean refresh(CredentialRefresher refresher, CloudIntegration integration, Instant before,
+                            Semaphore permits) {
+        String provider = refresher.provider().key();
+        String outcome = "failure";
+        try {
+            if (!jitter.isZero()) {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1));
+            }
+            permits.acquire();
+            try {
+                // Otras instancias leen el mismo lote; solo refresca la que consigue la reserva, y solo si
+                // nadie renovó la fila durante la espera aleatoria
+                if (!cloudIntegrationUseCase.claimRefresh(integration.getId(), before, claimTimeout)) {
+                    outcome = "skipped";
+                    return false;
+                }
+                refresher.refresh(integration);
+                outcome = "success";
+                return true;
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (CredentialRevokedException e) {
+            outcome = "revoked";
+            log.warn("La autorización de {} de la integración {} ya no es válida, se desactiva: {}",
+                    provider, integration.getId(), e.getMessage());
+            cloudIntegrationUseCase.deactivateIntegrations(integration.getUserId(), provider);
+            return false;
+        } catch (Exception e) {
+            Instant retryAt = cloudIntegrationUseCase.recordRefreshFailure(integration.getId(), retryBaseDelay, maxRetryDelay);
+            log.warn("No se pudo renovar la credencial de {} de la integración {}, se reintentará a partir de {}: {}",
+                    provider, integration.getId(), retryAt, e.getMessage());
+            return false;
+        } finally {
+            refreshCounters.get(provider).get(outcome).increment();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.cloudintegrationms.infrastructure.provider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Parámetro state del flujo OAuth autocontenido: lleva el proveedor, el userId, un nonce y la caducidad,
+ * firmados con HMAC-SHA256. El callback puede llegar a cualquier instancia que comparta el secreto sin
+ * guardar nada en sesión. Cada nonce se acepta una sola vez mientras siga en una caché acotada.
+ * Formato: {@code base64url(proveedor \n userId \n nonce \n caducidad) + "." + base64url(firma)}.
+ */
+@Slf4j
+@Component
+public class OAuthStateSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int NONCE_BYTES = 16;
+    private static final int KEY_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Cache<String, Boolean> usedNonces;
+    private final MeterRegistry meterRegistry;
+
+    public OAuthStateSigner(
+            @Value("${cloud-integration.oauth.state.secret:}") String secret,
+            @Value("${cloud-integration.oauth.state.ttl:10m}") Duration ttl,
+            @Value("${cloud-integration.oauth.state.max-tracked-nonces:100000}") long maxTrackedNonces,
+            MeterRegistry meterRegistry) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[KEY_BYTES];
+            random.nextBytes(keyBytes);
+            log.warn("cloud-integration.oauth.state.secret no está definido: se usa una clave aleatoria y el callback "
+                    + "OAuth solo se validará en la instancia que inició el flujo");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < KEY_BYTES) {
+                throw new IllegalStateException("cloud-integration.oauth.state.secret debe tener al menos "
+                        + KEY_BYTES + " bytes");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = ttl;
+        // Un nonce solo hace falta recordarlo mientras su state no haya caducado
+        this.usedNonces = Caffeine.newBuilder()
+                .maximumSize(maxTrackedNonces)
+                .expireAfterWrite(ttl)
+                .build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Genera el state para iniciar la autorización de un usuario con un proveedor.
+     */
+    public String issue(String provider, String userId) {
+        if (userId.indexOf('\n') >= 0 || provider.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("userId no válido");
+        }
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        String payload = provider + "\n" + userId + "\n" + ENCODER.encodeToString(nonce) + "\n"
+                + Instant.now().plus(ttl).getEpochSecond();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * Valida el state recibido en el callback y consume su nonce.
+     * @return el userId que inició el flujo, o vacío si el state no es válido para este proveedor
+     */
+    public Optional<String> verify(String provider, String state) {
+        return verify(provider, state, Instant.now());
+    }
+
+    Optional<String> verify(String provider, String state, Instant now) {
+        if (state == null) {
+            return reject(provider, "missing");
+        }
+        int separator = state.indexOf('.');
+        if (separator < 0) {
+            return reject(provider, "malformed");
+        }
+        byte[] payloadBytes;
+        byte[] signature;
+        try {
+            payloadBytes = DECODER.decode(state.substring(0, separator));
+            signature = DECODER.decode(state.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return reject(provider, "malformed");
+        }
+        if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+            return reject(provider, "invalid_signature");
+        }
+
+        String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\n", -1);
+        if (fields.length != 4 || !fields[0].equals(provider)) {
+            return reject(provider, "wrong_provider");
+        }
+        if (now.getEpochSecond() > Long.parseLong(fields[3])) {
+            return reject(provider, "expired");
+        }
+        if (usedNonces.asMap().putIfAbsent(fields[2], Boolean.TRUE) != null) {
+            return reject(provider, "replayed");
+        }
+        return Optional.of(fields[1]);
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            // Mac no es seguro entre hilos; crear uno por llamada es barato frente al flujo OAuth
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo firmar el state OAuth", e);
+        }
+    }
+
+    private Optional<String> reject(String provider, String reason) {
+        log.warn("State OAuth de {} rechazado: {}", provider, reason);
+        Counter.builder("oauth.state.rejected")
+                .tag("provider", provider)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return Optional.empty();
+    }
+}
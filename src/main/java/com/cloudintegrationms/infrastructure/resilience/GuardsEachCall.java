@@ -0,0 +1,19 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un adaptador (o uno de sus métodos) que pasa cada petición HTTP por su {@link ProviderCallGuard},
+ * con {@link ProviderCallGuardInterceptor} o {@link ProviderCallGuardFilter}. {@link ProviderResilienceInterceptor}
+ * no envuelve la llamada entera, para que ni una operación de varias peticiones ni las esperas de turno del
+ * limitador de peticiones retengan un permiso del bulkhead o cuenten como una llamada lenta.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GuardsEachCall {
+}
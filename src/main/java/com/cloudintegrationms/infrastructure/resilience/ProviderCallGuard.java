@@ -0,0 +1,72 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import com.cloudintegrationms.infrastructure.http.ProviderHttpException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead y circuit breaker de un proveedor. Lo usa {@link ProviderResilienceInterceptor} para cada
+ * llamada a un adaptador, y {@link ProviderCallGuardInterceptor} y {@link ProviderCallGuardFilter} para
+ * cada petición HTTP de los adaptadores marcados con {@link GuardsEachCall}.
+ */
+@RequiredArgsConstructor
+public class ProviderCallGuard {
+
+    private final String provider;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Duration waitDurationInOpenState;
+
+    /**
+     * Reserva un permiso del bulkhead y del circuito.
+     * @return instante de inicio de la llamada, para medir su duración
+     */
+    long acquire() {
+        if (!bulkhead.tryAcquirePermission()) {
+            throw new ProviderUnavailableException(provider, "bulkhead_full", Duration.ofSeconds(1),
+                    "Demasiadas llamadas simultáneas a " + provider);
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            throw new ProviderUnavailableException(provider, "circuit_open", waitDurationInOpenState,
+                    "Servicio " + provider + " no disponible temporalmente");
+        }
+        return System.nanoTime();
+    }
+
+    void onSuccess(long start) {
+        circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        bulkhead.onComplete();
+    }
+
+    void onError(long start, Throwable error) {
+        circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, error);
+        bulkhead.onComplete();
+    }
+
+    /**
+     * Registra la respuesta HTTP de una petición. Un 429 limita a un workspace o usuario concreto, no indica
+     * que el proveedor esté degradado, así que se libera el permiso sin contar la llamada en el circuito.
+     */
+    void onResponse(long start, int statusCode) {
+        if (statusCode == 429) {
+            release();
+        } else if (statusCode >= 400) {
+            onError(start, new ProviderHttpException(statusCode, provider + " respondió " + statusCode));
+        } else {
+            onSuccess(start);
+        }
+    }
+
+    /**
+     * Libera el permiso sin registrar el resultado de la petición, p. ej. si se cancela.
+     */
+    void release() {
+        circuitBreaker.releasePermission();
+        bulkhead.onComplete();
+    }
+}
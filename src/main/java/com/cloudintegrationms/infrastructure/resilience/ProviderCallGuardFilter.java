@@ -0,0 +1,45 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Equivalente no bloqueante de {@link ProviderCallGuardInterceptor} para el WebClient: se registra detrás
+ * de los filtros que programan esperas, de modo que solo el intercambio con el proveedor ocupa el bulkhead.
+ */
+@RequiredArgsConstructor
+public class ProviderCallGuardFilter implements ExchangeFilterFunction {
+
+    private final ProviderCallGuard guard;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long start = guard.acquire();
+            // Una cancelación puede llegar después de la respuesta; solo se registra lo que ocurra primero
+            AtomicBoolean completed = new AtomicBoolean();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (completed.compareAndSet(false, true)) {
+                            guard.onResponse(start, response.statusCode().value());
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (completed.compareAndSet(false, true)) {
+                            guard.onError(start, e);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (completed.compareAndSet(false, true)) {
+                            guard.release();
+                        }
+                    });
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import lombok.RequiredArgsConstructor;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * Pasa cada petición bloqueante por el {@link ProviderCallGuard} del proveedor. Se añade detrás de los
+ * interceptores que esperan turno (límite de peticiones, límite por host), para que esas esperas no ocupen
+ * el bulkhead ni cuenten como llamadas lentas, y cada reintento se registra como una petición más.
+ */
+@RequiredArgsConstructor
+public class ProviderCallGuardInterceptor implements Interceptor {
+
+    private final ProviderCallGuard guard;
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        long start = guard.acquire();
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            guard.onError(start, e);
+            throw e;
+        }
+        guard.onResponse(start, response.code());
+        return response;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Un {@link ProviderCallGuard} por proveedor, compartido por el proxy de sus adaptadores
+ * y por los adaptadores que protegen cada petición HTTP por su cuenta.
+ */
+@RequiredArgsConstructor
+public class ProviderCallGuards {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final Duration waitDurationInOpenState;
+    private final Map<String, ProviderCallGuard> guards = new ConcurrentHashMap<>();
+
+    public ProviderCallGuard forProvider(String provider) {
+        return guards.computeIfAbsent(provider, key -> new ProviderCallGuard(
+                key,
+                circuitBreakerRegistry.getConfiguration(key)
+                        .map(config -> circuitBreakerRegistry.circuitBreaker(key, config))
+                        .orElseGet(() -> circuitBreakerRegistry.circuitBreaker(key)),
+                bulkheadRegistry.bulkhead(key),
+                waitDurationInOpenState));
+    }
+}
@@ -0,0 +1,26 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class ProviderExceptionHandler {
+
+    @ExceptionHandler(ProviderUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleProviderUnavailable(ProviderUnavailableException e) {
+        long retryAfterSeconds = Math.max(1, e.getRetryAfter().toSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of(
+                        "error", e.getMessage(),
+                        "provider", e.getProvider(),
+                        "reason", e.getReason(),
+                        "retryAfterSeconds", retryAfterSeconds
+                ));
+    }
+}
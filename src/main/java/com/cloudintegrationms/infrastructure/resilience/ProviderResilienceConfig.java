@@ -0,0 +1,156 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import com.cloudintegrationms.domain.googledrive.GoogleDriveService;
+import com.cloudintegrationms.domain.notion.NotionAsyncService;
+import com.cloudintegrationms.domain.notion.NotionService;
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.domain.provider.CredentialRevokedException;
+import com.cloudintegrationms.infrastructure.http.ProviderHttpException;
+import com.cloudintegrationms.infrastructure.notion.NotionRateLimitException;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Circuit breaker y bulkhead por proveedor alrededor de los beans de sus adaptadores,
+ * para que un proveedor degradado falle rápido en lugar de agotar los hilos del servicio.
+ * El estado de cada circuito y la ocupación de cada bulkhead se publican como métricas.
+ */
+@Configuration
+public class ProviderResilienceConfig {
+
+    private static final Map<Class<?>, String> GUARDED_TYPES = Map.of(
+            NotionService.class, CloudProvider.NOTION.key(),
+            NotionAsyncService.class, CloudProvider.NOTION.key(),
+            GoogleDriveService.class, CloudProvider.GOOGLE_DRIVE.key()
+    );
+
+    @Value("${cloud-integration.resilience.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${cloud-integration.resilience.circuit-breaker.slow-call-rate-threshold:80}")
+    private float slowCallRateThreshold;
+
+    @Value("${cloud-integration.resilience.circuit-breaker.slow-call-duration:5s}")
+    private Duration slowCallDuration;
+
+    @Value("${cloud-integration.resilience.circuit-breaker.sliding-window-size:50}")
+    private int slidingWindowSize;
+
+    @Value("${cloud-integration.resilience.circuit-breaker.minimum-number-of-calls:20}")
+    private int minimumNumberOfCalls;
+
+    @Value("${cloud-integration.resilience.circuit-breaker.wait-duration-in-open-state:30s}")
+    private Duration waitDurationInOpenState;
+
+    @Value("${cloud-integration.resilience.circuit-breaker.permitted-calls-in-half-open-state:5}")
+    private int permittedCallsInHalfOpenState;
+
+    // Las subidas a Drive duran lo que tarde el archivo; solo se consideran lentas pasado este umbral
+    @Value("${cloud-integration.resilience.circuit-breaker.google-drive.slow-call-duration:10m}")
+    private Duration googleDriveSlowCallDuration;
+
+    @Value("${cloud-integration.resilience.bulkhead.max-concurrent-calls:50}")
+    private int maxConcurrentCalls;
+
+    @Value("${cloud-integration.resilience.bulkhead.max-wait:0ms}")
+    private Duration bulkheadMaxWait;
+
+    @Bean
+    public CircuitBreakerRegistry providerCircuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreException(ProviderResilienceConfig::isIgnored)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        registry.addConfiguration(CloudProvider.GOOGLE_DRIVE.key(), CircuitBreakerConfig.from(config)
+                .slowCallDurationThreshold(googleDriveSlowCallDuration)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry providerBulkheadRegistry(MeterRegistry meterRegistry) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(bulkheadMaxWait)
+                .build();
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public ProviderCallGuards providerCallGuards(CircuitBreakerRegistry providerCircuitBreakerRegistry,
+                                                 BulkheadRegistry providerBulkheadRegistry) {
+        return new ProviderCallGuards(providerCircuitBreakerRegistry, providerBulkheadRegistry, waitDurationInOpenState);
+    }
+
+    @Bean
+    public static BeanPostProcessor providerResiliencePostProcessor(ObjectProvider<ProviderCallGuards> callGuards) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                for (Map.Entry<Class<?>, String> guarded : GUARDED_TYPES.entrySet()) {
+                    if (guarded.getKey().isInstance(bean)) {
+                        ProviderResilienceInterceptor interceptor = new ProviderResilienceInterceptor(
+                                callGuards.getObject().forProvider(guarded.getValue()));
+                        // Si el bean ya es un proxy (p. ej. el de las métricas) se añade al final de su cadena
+                        if (bean instanceof Advised advised && !advised.isFrozen()) {
+                            advised.addAdvice(interceptor);
+                            return bean;
+                        }
+                        ProxyFactory proxyFactory = new ProxyFactory(bean);
+                        proxyFactory.setProxyTargetClass(true);
+                        proxyFactory.addAdvice(interceptor);
+                        return proxyFactory.getProxy();
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Errores que no indican que el proveedor esté degradado y no deben abrir el circuito.
+     */
+    private static boolean isIgnored(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UnsupportedOperationException || cause instanceof NotionRateLimitException
+                    || cause instanceof ProviderUnavailableException || cause instanceof CredentialRevokedException) {
+                return true;
+            }
+            if (cause instanceof ProviderHttpException httpError) {
+                return httpError.isClientError();
+            }
+            if (cause instanceof WebClientResponseException responseError) {
+                int status = responseError.getStatusCode().value();
+                return status >= 400 && status < 500 && status != 408 && status != 429;
+            }
+        }
+        return false;
+    }
+}
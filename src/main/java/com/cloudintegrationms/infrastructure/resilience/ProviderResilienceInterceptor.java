@@ -0,0 +1,70 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Envuelve cada llamada a un adaptador de proveedor con su bulkhead y su circuit breaker.
+ * Las llamadas rechazadas fallan de inmediato con {@link ProviderUnavailableException};
+ * en los métodos asíncronos los permisos se liberan cuando se completa el futuro.
+ * Los adaptadores y métodos marcados con {@link GuardsEachCall} se dejan pasar sin envolver.
+ */
+@RequiredArgsConstructor
+class ProviderResilienceInterceptor implements MethodInterceptor {
+
+    private final ProviderCallGuard guard;
+    private final Map<Method, Boolean> selfGuarded = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (isSelfGuarded(invocation)) {
+            return invocation.proceed();
+        }
+        boolean async = CompletableFuture.class.isAssignableFrom(invocation.getMethod().getReturnType());
+        long start;
+        try {
+            start = guard.acquire();
+        } catch (ProviderUnavailableException e) {
+            if (async) {
+                return CompletableFuture.failedFuture(e);
+            }
+            throw e;
+        }
+
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            guard.onError(start, e);
+            throw e;
+        }
+        if (result instanceof CompletableFuture<?> future) {
+            return future.whenComplete((value, error) -> {
+                if (error == null) {
+                    guard.onSuccess(start);
+                } else {
+                    guard.onError(start, error);
+                }
+            });
+        }
+        guard.onSuccess(start);
+        return result;
+    }
+
+    private boolean isSelfGuarded(MethodInvocation invocation) {
+        return selfGuarded.computeIfAbsent(invocation.getMethod(), method -> {
+            Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null;
+            return (targetClass != null && AnnotatedElementUtils.hasAnnotation(targetClass, GuardsEachCall.class))
+                    || AnnotatedElementUtils.hasAnnotation(AopUtils.getMostSpecificMethod(method, targetClass),
+                    GuardsEachCall.class);
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Se rechaza una llamada a un proveedor sin llegar a enviarla, porque su circuito está abierto
+ * o porque ya hay demasiadas llamadas en curso hacia él.
+ */
+@Getter
+public class ProviderUnavailableException extends RuntimeException {
+
+    private final String provider;
+    private final String reason;
+    private final Duration retryAfter;
+
+    public ProviderUnavailableException(String provider, String reason, Duration retryAfter, String message) {
+        super(message);
+        this.provider = provider;
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -1,12 +1,95 @@
 package com.cloudintegrationms.server.application.port.in;
 
 import com.cloudintegrationms.server.domain.model.CloudIntegration;
+import com.cloudintegrationms.server.domain.model.CloudIntegrationBatchResult;
+import com.cloudintegrationms.server.domain.model.CloudIntegrationPage;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CloudIntegrationUseCase {
     CloudIntegration createIntegration(CloudIntegration integration);
     CloudIntegration getIntegration(String id);
     List<CloudIntegration> getUserIntegrations(String userId);
+
+    /**
+     * Página de integraciones de un usuario ordenada por id, a partir del cursor indicado.
+     * @param cursor cursor devuelto por la página anterior, o nulo para la primera página
+     */
+    CloudIntegrationPage getUserIntegrationsPage(String userId, String cursor, int size);
+
+    /**
+     * Recorre las integraciones de un usuario sin cargarlas todas en memoria.
+     */
+    void streamUserIntegrations(String userId, Consumer<CloudIntegration> consumer);
+
     void deleteIntegration(String id);
     CloudIntegration updateIntegration(CloudIntegration integration);
-} 
\ No newline at end of file
+
+    /**
+     * Obtiene la credencial de la integración activa de un usuario para un proveedor.
+     * El resultado se sirve desde caché y se invalida con cada escritura.
+     */
+    Optional<String> getActiveCredentials(String userId, String provider);
+
+    /**
+     * Lee la integración activa de un usuario con un proveedor sin pasar por la caché,
+     * para poder actualizar por id la misma fila cuya credencial se ha leído.
+     */
+    Optional<CloudIntegration> getActiveIntegration(String userId, String provider);
+
+    /**
+     * Indica si el usuario tiene una integración activa con el proveedor sin materializarla.
+     */
+    boolean existsActiveIntegration(String userId, String provider);
+
+    /**
+     * Integraciones activas de un proveedor cuyo token caduca antes de {@code before}, en orden de caducidad.
+     * @param after última integración de la página anterior, o nulo para la primera página
+     */
+    List<CloudIntegration> getExpiringIntegrations(String provider, Instant before, CloudIntegration after, int size);
+
+    /**
+     * Reserva el refresco programado de una integración para esta instancia durante {@code lease}.
+     * Guardar credenciales nuevas con {@link #updateIntegration} libera la reserva.
+     * @param before el mismo límite de caducidad con el que se leyó la integración
+     * @return false si otra instancia ya la tiene reservada, está esperando un reintento
+     *         o ya se renovó y no caduca antes de {@code before}
+     */
+    boolean claimRefresh(String id, Instant before, Duration lease);
+
+    /**
+     * Anota un refresco fallido y aplaza el siguiente intento con espera exponencial,
+     * desde {@code baseDelay} hasta como máximo {@code maxDelay}.
+     * @return instante del siguiente intento
+     */
+    Instant recordRefreshFailure(String id, Duration baseDelay, Duration maxDelay);
+
+    /**
+     * Desactiva en una sola sentencia las integraciones activas de un usuario con un proveedor.
+     * @return número de integraciones desactivadas
+     */
+    int deactivateIntegrations(String userId, String provider);
+
+    /**
+     * Desactiva por lotes las integraciones activas de un proveedor de los usuarios indicados.
+     * @param userIds usuarios afectados; si es nulo o vacío no se desactiva ninguna
+     * @return número total de integraciones desactivadas
+     */
+    int deactivateProviderIntegrations(String provider, List<String> userIds);
+
+    /**
+     * Desactiva por lotes las integraciones activas de un proveedor de todos los usuarios.
+     * @return número total de integraciones desactivadas
+     */
+    int deactivateAllProviderIntegrations(String provider);
+
+    /**
+     * Operaciones por lotes: cada elemento obtiene su propio resultado, en el mismo orden de entrada.
+     */
+    List<CloudIntegrationBatchResult> createIntegrations(List<CloudIntegration> integrations);
+    List<CloudIntegrationBatchResult> updateIntegrations(List<CloudIntegration> integrations);
+    List<CloudIntegrationBatchResult> deleteIntegrations(List<String> ids);
+}
@@ -0,0 +1,26 @@
+package com.cloudintegrationms.server.domain.event;
+
+/**
+ * Evento publicado tras cualquier escritura sobre las integraciones de un usuario.
+ * Un userId nulo indica que el cambio afecta a todos los usuarios del proveedor,
+ * y un proveedor nulo que afecta a todas las integraciones.
+ * remote indica que la escritura se hizo en otra instancia y llegó por el bus de invalidación.
+ */
+public record CloudIntegrationChangedEvent(String userId, String provider, boolean remote) {
+
+    public static CloudIntegrationChangedEvent forUser(String userId, String provider) {
+        return new CloudIntegrationChangedEvent(userId, provider, false);
+    }
+
+    public static CloudIntegrationChangedEvent forProvider(String provider) {
+        return new CloudIntegrationChangedEvent(null, provider, false);
+    }
+
+    public static CloudIntegrationChangedEvent all() {
+        return new CloudIntegrationChangedEvent(null, null, false);
+    }
+
+    public CloudIntegrationChangedEvent asRemote() {
+        return new CloudIntegrationChangedEvent(userId, provider, true);
+    }
+}
@@ -1,7 +1,16 @@
 package com.cloudintegrationms.server.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.function.Supplier;
 
 @Data
 @Builder
@@ -11,4 +20,33 @@ public class CloudIntegration {
     private String provider;
     private String credentials;
     private boolean active;
-} 
\ No newline at end of file
+
+    /**
+     * Caducidad del token de acceso guardado en credentials; nula si el proveedor no lo hace caducar.
+     */
+    private Instant expiresAt;
+
+    /**
+     * Descifra las credenciales leídas de la base de datos la primera vez que se piden,
+     * así los recorridos que no las usan no pagan el descifrado.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Supplier<String> credentialsLoader;
+
+    public String getCredentials() {
+        if (credentials == null && credentialsLoader != null) {
+            credentials = credentialsLoader.get();
+            credentialsLoader = null;
+        }
+        return credentials;
+    }
+
+    public void setCredentials(String credentials) {
+        this.credentials = credentials;
+        this.credentialsLoader = null;
+    }
+}
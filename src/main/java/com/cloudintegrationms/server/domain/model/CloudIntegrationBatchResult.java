@@ -0,0 +1,22 @@
+package com.cloudintegrationms.server.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CloudIntegrationBatchResult {
+    private int index;
+    private String id;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        CONFLICT,
+        INVALID
+    }
+}
@@ -0,0 +1,16 @@
+package com.cloudintegrationms.server.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CloudIntegrationPage {
+    private List<CloudIntegration> items;
+    /**
+     * Cursor para pedir la página siguiente; nulo cuando no quedan más integraciones.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,92 @@
+package com.cloudintegrationms.server.infrastructure.cache;
+
+import com.cloudintegrationms.server.domain.event.CloudIntegrationChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de la credencial activa de cada usuario por proveedor, tal como está guardada (cifrada).
+ * Acotada en tamaño y con TTL; se invalida con cada {@link CloudIntegrationChangedEvent}.
+ * Expone hits, misses y desalojos en el registro de métricas bajo "cloudIntegrationCredentials".
+ */
+@Slf4j
+@Component
+public class CloudIntegrationCredentialCache {
+
+    private static final String CACHE_NAME = "cloudIntegrationCredentials";
+
+    private final Cache<Key, Optional<String>> cache;
+    private final Counter invalidations;
+
+    public CloudIntegrationCredentialCache(
+            @Value("${cloud-integration.cache.credentials.max-size:10000}") long maxSize,
+            @Value("${cloud-integration.cache.credentials.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.invalidations = Counter.builder("cache.invalidations")
+                .tag("cache", CACHE_NAME)
+                .description("Invalidaciones explícitas por escrituras sobre integraciones")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Devuelve la credencial activa cacheada o la carga con el loader indicado.
+     * También se cachea la ausencia de credencial para no repetir la consulta.
+     */
+    public Optional<String> get(String userId, String provider, Supplier<Optional<String>> loader) {
+        return cache.get(new Key(userId, provider), key -> loader.get());
+    }
+
+    /**
+     * Consulta la caché sin cargar; devuelve null si no hay entrada para el usuario y proveedor.
+     */
+    public Optional<String> getIfPresent(String userId, String provider) {
+        return cache.getIfPresent(new Key(userId, provider));
+    }
+
+    public void evict(String userId, String provider) {
+        cache.invalidate(new Key(userId, provider));
+        invalidations.increment();
+    }
+
+    public void evictProvider(String provider) {
+        cache.asMap().keySet().removeIf(key -> key.provider().equals(provider));
+        invalidations.increment();
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        invalidations.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIntegrationChanged(CloudIntegrationChangedEvent event) {
+        if (event.provider() == null) {
+            evictAll();
+        } else if (event.userId() == null) {
+            evictProvider(event.provider());
+        } else {
+            evict(event.userId(), event.provider());
+        }
+        log.debug("Caché de credenciales invalidada para {}", event);
+    }
+
+    private record Key(String userId, String provider) {
+    }
+}
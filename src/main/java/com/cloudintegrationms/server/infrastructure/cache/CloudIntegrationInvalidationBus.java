@@ -0,0 +1,228 @@
+package com.cloudintegrationms.server.infrastructure.cache;
+
+import com.cloudintegrationms.server.domain.event.CloudIntegrationChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Propaga las invalidaciones de caché entre instancias con LISTEN/NOTIFY de PostgreSQL.
+ * Cada {@link CloudIntegrationChangedEvent} local se notifica dentro de la transacción de la escritura, así que
+ * las demás instancias solo lo reciben si se confirma; al recibirlo lo vuelven a publicar como evento remoto
+ * para que sus cachés se invaliden igual que con una escritura local.
+ * Toda invalidación recibida se aplica: las versiones se asignan en cada instancia antes del commit y no siguen
+ * el orden de confirmación, así que solo sirven para contar los mensajes que llegan desordenados, y una
+ * invalidación de más es inocua. Tras perder la conexión de escucha se vacían todas las cachés, porque
+ * se pueden haber perdido notificaciones. Con otra base de datos que no sea PostgreSQL el bus queda inactivo.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cloud-integration.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CloudIntegrationInvalidationBus implements SmartLifecycle {
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong version = new AtomicLong();
+    private final Cache<VersionKey, Long> lastVersions;
+    private final boolean postgres;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Thread listener;
+
+    private final Counter sent;
+    private final Counter sendFailures;
+    private final Counter inOrder;
+    private final Counter outOfOrder;
+    private final Counter flushes;
+    private final Timer lag;
+
+    /**
+     * Mensaje del canal; version ordena los mensajes de una misma instancia y sentAt permite medir
+     * el retraso de la invalidación entre instancias.
+     */
+    record Message(String origin, long version, String userId, String provider, long sentAt) {
+    }
+
+    private record VersionKey(String origin, String userId, String provider) {
+    }
+
+    public CloudIntegrationInvalidationBus(
+            DataSourceProperties dataSourceProperties,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cloud-integration.invalidation.channel:cloud_integration_changes}") String channel,
+            @Value("${cloud-integration.invalidation.poll-timeout:500ms}") Duration pollTimeout,
+            @Value("${cloud-integration.invalidation.reconnect-delay:5s}") Duration reconnectDelay,
+            @Value("${cloud-integration.invalidation.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.lastVersions = Caffeine.newBuilder().maximumSize(maxTrackedKeys).build();
+        String url = dataSourceProperties.determineUrl();
+        this.postgres = url != null && url.startsWith("jdbc:postgresql:");
+
+        this.sent = Counter.builder("cloud.integration.invalidation.sent").register(meterRegistry);
+        this.sendFailures = Counter.builder("cloud.integration.invalidation.send.failures").register(meterRegistry);
+        this.inOrder = Counter.builder("cloud.integration.invalidation.received")
+                .tag("order", "in_order").register(meterRegistry);
+        this.outOfOrder = Counter.builder("cloud.integration.invalidation.received")
+                .description("Invalidaciones recibidas por detrás de otra posterior de la misma instancia y clave")
+                .tag("order", "out_of_order").register(meterRegistry);
+        this.flushes = Counter.builder("cloud.integration.invalidation.flushes")
+                .description("Vaciados completos de caché tras recuperar la conexión de escucha")
+                .register(meterRegistry);
+        this.lag = Timer.builder("cloud.integration.invalidation.lag")
+                .description("Tiempo desde la escritura en una instancia hasta la invalidación en otra")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Notifica a las demás instancias una escritura local. Se ejecuta antes de confirmar, de modo que
+     * PostgreSQL entrega la notificación con el commit o la descarta con el rollback.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onIntegrationChanged(CloudIntegrationChangedEvent event) {
+        if (event.remote() || !postgres) {
+            return;
+        }
+        Message message = new Message(instanceId, version.incrementAndGet(), event.userId(), event.provider(),
+                System.currentTimeMillis());
+        try {
+            jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, channel, objectMapper.writeValueAsString(message));
+            sent.increment();
+        } catch (Exception e) {
+            // Las demás instancias se quedan con la entrada hasta que caduque su TTL
+            sendFailures.increment();
+            log.warn("No se pudo notificar la invalidación {} a las demás instancias: {}", event, e.getMessage());
+        }
+    }
+
+    void receive(String payload) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (Exception e) {
+            log.warn("Mensaje de invalidación con formato inválido: {}", payload);
+            return;
+        }
+        if (instanceId.equals(message.origin())) {
+            return;
+        }
+        // Una versión anterior puede pertenecer a una transacción confirmada después, así que se aplica igualmente
+        VersionKey key = new VersionKey(message.origin(), message.userId(), message.provider());
+        Long previous = lastVersions.asMap().merge(key, message.version(), Math::max);
+        (previous == message.version() ? inOrder : outOfOrder).increment();
+        eventPublisher.publishEvent(new CloudIntegrationChangedEvent(message.userId(), message.provider(), true));
+        lag.record(Math.max(0, System.currentTimeMillis() - message.sentAt()), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void start() {
+        if (!postgres) {
+            log.info("Bus de invalidación entre instancias inactivo: la base de datos no es PostgreSQL");
+            return;
+        }
+        running.set(true);
+        listener = Thread.ofPlatform().daemon().name("cloud-integration-invalidation").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running.set(false);
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running.get()) {
+            // Conexión propia fuera del pool: se mantiene abierta mientras dure la escucha
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    flushes.increment();
+                    try {
+                        eventPublisher.publishEvent(CloudIntegrationChangedEvent.all().asRemote());
+                        log.info("Conexión de escucha de invalidaciones recuperada; cachés vaciadas");
+                    } catch (RuntimeException e) {
+                        log.error("Error al vaciar las cachés tras recuperar la conexión de escucha", e);
+                    }
+                }
+                reconnecting = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running.get()) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            // Un listener de caché que falle no debe dejar a la instancia sin escuchar invalidaciones
+                            try {
+                                receive(notification.getParameter());
+                            } catch (RuntimeException e) {
+                                log.error("Error al aplicar la invalidación {}", notification.getParameter(), e);
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running.get()) {
+                    return;
+                }
+                log.warn("Conexión de escucha de invalidaciones perdida, reintento en {}: {}", reconnectDelay, e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.cloudintegrationms.server.infrastructure.crypto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cifrado por sobre de las credenciales: cada valor se cifra con AES-GCM bajo una clave de datos que rota
+ * por tiempo y por número de usos, y que se guarda envuelta por la clave maestra junto al texto cifrado:
+ * {@code enc:v1:<clave maestra>:<clave de datos envuelta>:<iv + texto cifrado>}.
+ * Las claves de datos desenvueltas se cachean, de modo que el {@link DataKeyProvider} solo interviene al
+ * rotar y la primera vez que se lee cada clave. El contexto (usuario y proveedor) va como datos
+ * autenticados, así que una credencial copiada a otra integración no se descifra.
+ * Los valores sin el prefijo son credenciales anteriores al cifrado y se devuelven tal cual.
+ */
+@Slf4j
+@Component
+public class CredentialCipher {
+
+    static final String PREFIX = "enc:v1:";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final DataKeyProvider keyProvider;
+    private final Cache<String, SecretKey> dataKeys;
+    private final Duration rotationInterval;
+    private final long maxEncryptionsPerKey;
+    private final SecureRandom random = new SecureRandom();
+    private volatile ActiveKey activeKey;
+
+    /**
+     * Clave de datos con la que se cifra ahora; header es el prefijo ya serializado de cada valor cifrado.
+     */
+    private record ActiveKey(String header, SecretKey key, Instant rotateAt, AtomicLong encryptions) {
+    }
+
+    public CredentialCipher(
+            DataKeyProvider keyProvider,
+            @Value("${cloud-integration.crypto.data-key.rotation-interval:24h}") Duration rotationInterval,
+            @Value("${cloud-integration.crypto.data-key.max-encryptions:1000000}") long maxEncryptionsPerKey,
+            @Value("${cloud-integration.crypto.data-key.cache-max-size:1000}") long cacheMaxSize,
+            @Value("${cloud-integration.crypto.data-key.cache-ttl:1h}") Duration cacheTtl,
+            MeterRegistry meterRegistry) {
+        this.keyProvider = keyProvider;
+        this.rotationInterval = rotationInterval;
+        this.maxEncryptionsPerKey = maxEncryptionsPerKey;
+        this.dataKeys = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterAccess(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, dataKeys, "credentialDataKeys");
+    }
+
+    /**
+     * Cifra una credencial ligándola al contexto indicado
+     * @return el valor a persistir, o null si la credencial es nula
+     */
+    public String encrypt(String plaintext, String context) {
+        if (plaintext == null) {
+            return null;
+        }
+        ActiveKey key = currentKey();
+        byte[] payload = new byte[IV_BYTES];
+        random.nextBytes(payload);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key.key(), new GCMParameterSpec(TAG_BITS, payload));
+            cipher.updateAAD(context.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            payload = Arrays.copyOf(payload, IV_BYTES + sealed.length);
+            System.arraycopy(sealed, 0, payload, IV_BYTES, sealed.length);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo cifrar la credencial", e);
+        }
+        return key.header() + ENCODER.encodeToString(payload);
+    }
+
+    /**
+     * Descifra un valor producido por {@link #encrypt(String, String)} con el mismo contexto
+     */
+    public String decrypt(String stored, String context) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return stored;
+        }
+        // El id de la clave maestra puede contener ':' (p. ej. un ARN), así que se separa desde el final
+        int payloadStart = stored.lastIndexOf(':') + 1;
+        String keyReference = stored.substring(PREFIX.length(), payloadStart - 1);
+        SecretKey key = dataKeys.get(keyReference, this::unwrap);
+        byte[] payload = DECODER.decode(stored.substring(payloadStart));
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, payload, 0, IV_BYTES));
+            cipher.updateAAD(context.getBytes(StandardCharsets.UTF_8));
+            return new String(cipher.doFinal(payload, IV_BYTES, payload.length - IV_BYTES), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo descifrar la credencial", e);
+        }
+    }
+
+    private SecretKey unwrap(String keyReference) {
+        int separator = keyReference.lastIndexOf(':');
+        byte[] plaintext = keyProvider.unwrapDataKey(keyReference.substring(0, separator),
+                DECODER.decode(keyReference.substring(separator + 1)));
+        return new SecretKeySpec(plaintext, "AES");
+    }
+
+    private ActiveKey currentKey() {
+        ActiveKey key = activeKey;
+        if (key != null && key.encryptions().incrementAndGet() <= maxEncryptionsPerKey
+                && Instant.now().isBefore(key.rotateAt())) {
+            return key;
+        }
+        synchronized (this) {
+            if (activeKey == key) {
+                activeKey = newKey();
+            }
+            activeKey.encryptions().incrementAndGet();
+            return activeKey;
+        }
+    }
+
+    private ActiveKey newKey() {
+        DataKeyProvider.DataKey dataKey = keyProvider.generateDataKey();
+        String keyReference = dataKey.masterKeyId() + ":" + ENCODER.encodeToString(dataKey.wrapped());
+        SecretKey key = new SecretKeySpec(dataKey.plaintext(), "AES");
+        dataKeys.put(keyReference, key);
+        log.info("Nueva clave de datos para el cifrado de credenciales bajo la clave maestra {}", dataKey.masterKeyId());
+        return new ActiveKey(PREFIX + keyReference + ":", key, Instant.now().plus(rotationInterval), new AtomicLong());
+    }
+}
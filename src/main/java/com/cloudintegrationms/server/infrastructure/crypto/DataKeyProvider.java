@@ -0,0 +1,28 @@
+package com.cloudintegrationms.server.infrastructure.crypto;
+
+/**
+ * Custodia de las claves maestras que envuelven las claves de datos del cifrado de credenciales.
+ * Es el punto de integración con un KMS; {@link LocalFileDataKeyProvider} lo sustituye en local.
+ * Cada llamada puede ser remota, por eso {@link CredentialCipher} cachea las claves desenvueltas.
+ */
+public interface DataKeyProvider {
+
+    /**
+     * Genera una clave de datos AES-256 y la devuelve en claro y envuelta con la clave maestra actual
+     */
+    DataKey generateDataKey();
+
+    /**
+     * Desenvuelve una clave de datos con la clave maestra que la envolvió
+     * @return la clave de datos en claro
+     */
+    byte[] unwrapDataKey(String masterKeyId, byte[] wrappedKey);
+
+    /**
+     * @param masterKeyId clave maestra que envolvió la clave de datos
+     * @param plaintext   clave de datos en claro, solo para uso en memoria
+     * @param wrapped     clave de datos envuelta, que se guarda junto al texto cifrado
+     */
+    record DataKey(String masterKeyId, byte[] plaintext, byte[] wrapped) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.cloudintegrationms.server.infrastructure.crypto;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sustituto local de un KMS: las claves maestras se leen de un fichero de propiedades con una entrada
+ * {@code <id>=<clave AES-256 en base64>} por clave y {@code current=<id>} con la que envuelve las nuevas
+ * claves de datos. Las claves antiguas se conservan en el fichero para poder desenvolver lo ya cifrado.
+ * Si el fichero no existe el arranque falla, salvo que {@code create-if-missing} lo permita en desarrollo:
+ * una clave nueva dejaría ilegibles las credenciales ya guardadas.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cloud-integration.crypto.key-provider", havingValue = "local", matchIfMissing = true)
+public class LocalFileDataKeyProvider implements DataKeyProvider {
+
+    private static final String CURRENT = "current";
+    private static final int KEY_BYTES = 32;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, SecretKeySpec> masterKeys = new HashMap<>();
+    private final String currentKeyId;
+
+    @Autowired
+    public LocalFileDataKeyProvider(
+            @Value("${cloud-integration.crypto.local.key-file:}") String keyFile,
+            @Value("${cloud-integration.crypto.local.create-if-missing:false}") boolean createIfMissing) {
+        this(resolve(keyFile), createIfMissing);
+    }
+
+    LocalFileDataKeyProvider(Path keyFile, boolean createIfMissing) {
+        Properties properties;
+        if (Files.exists(keyFile)) {
+            properties = load(keyFile);
+        } else if (createIfMissing) {
+            properties = create(keyFile);
+        } else {
+            throw new IllegalStateException("No existe el fichero de claves maestras " + keyFile
+                    + " indicado en cloud-integration.crypto.local.key-file (CREDENTIALS_KEY_FILE); solo se genera"
+                    + " uno nuevo con cloud-integration.crypto.local.create-if-missing=true, en desarrollo");
+        }
+        for (String id : properties.stringPropertyNames()) {
+            if (!id.equals(CURRENT)) {
+                masterKeys.put(id, new SecretKeySpec(Base64.getDecoder().decode(properties.getProperty(id)), "AES"));
+            }
+        }
+        this.currentKeyId = properties.getProperty(CURRENT);
+        if (currentKeyId == null || !masterKeys.containsKey(currentKeyId)) {
+            throw new IllegalStateException("El fichero de claves " + keyFile + " no define una clave maestra actual válida");
+        }
+    }
+
+    @Override
+    public DataKey generateDataKey() {
+        byte[] plaintext = new byte[KEY_BYTES];
+        random.nextBytes(plaintext);
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, masterKeys.get(currentKeyId), new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(currentKeyId.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(plaintext);
+            byte[] wrapped = Arrays.copyOf(iv, IV_BYTES + sealed.length);
+            System.arraycopy(sealed, 0, wrapped, IV_BYTES, sealed.length);
+            return new DataKey(currentKeyId, plaintext, wrapped);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo envolver la clave de datos", e);
+        }
+    }
+
+    @Override
+    public byte[] unwrapDataKey(String masterKeyId, byte[] wrappedKey) {
+        SecretKeySpec masterKey = masterKeys.get(masterKeyId);
+        if (masterKey == null) {
+            throw new IllegalStateException("Clave maestra desconocida: " + masterKeyId);
+        }
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, masterKey, new GCMParameterSpec(TAG_BITS, wrappedKey, 0, IV_BYTES));
+            cipher.updateAAD(masterKeyId.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(wrappedKey, IV_BYTES, wrappedKey.length - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo desenvolver la clave de datos con " + masterKeyId, e);
+        }
+    }
+
+    private static Path resolve(String keyFile) {
+        if (keyFile == null || keyFile.isBlank()) {
+            throw new IllegalStateException("Falta cloud-integration.crypto.local.key-file (variable CREDENTIALS_KEY_FILE):"
+                    + " el proveedor de claves local necesita el fichero de claves maestras con que se cifran las"
+                    + " credenciales. Consulta \"Cifrado de credenciales\" en README-GOOGLE-DRIVE.md para crearlo");
+        }
+        return Path.of(keyFile);
+    }
+
+    private static Properties load(Path keyFile) {
+        warnIfReadableByOthers(keyFile);
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(keyFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            return properties;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el fichero de claves " + keyFile, e);
+        }
+    }
+
+    private Properties create(Path keyFile) {
+        byte[] key = new byte[KEY_BYTES];
+        random.nextBytes(key);
+        String id = UUID.randomUUID().toString();
+        Properties properties = new Properties();
+        properties.setProperty(id, Base64.getEncoder().encodeToString(key));
+        properties.setProperty(CURRENT, id);
+
+        Path directory = keyFile.toAbsolutePath().getParent();
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        Path temp = null;
+        try {
+            // Los permisos se fijan al crear cada fichero, así la clave nunca queda legible por otros
+            if (posix) {
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+                temp = Files.createTempFile(directory, ".credentials-master", ".tmp",
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            } else {
+                Files.createDirectories(directory);
+                temp = Files.createTempFile(directory, ".credentials-master", ".tmp");
+            }
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Claves maestras del cifrado de credenciales");
+            }
+            // El enlace falla si el fichero ya existe, así que no se pisa el que otra instancia acabe de crear
+            Files.createLink(keyFile, temp);
+        } catch (FileAlreadyExistsException e) {
+            return load(keyFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el fichero de claves " + keyFile, e);
+        } finally {
+            deleteQuietly(temp);
+        }
+        log.warn("Creado el fichero de claves maestras {}; sin él no se podrán descifrar las credenciales guardadas", keyFile);
+        return properties;
+    }
+
+    private static void warnIfReadableByOthers(Path keyFile) {
+        try {
+            if (keyFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(keyFile);
+                if (permissions.stream().anyMatch(permission -> !permission.name().startsWith("OWNER_"))) {
+                    log.warn("El fichero de claves maestras {} es accesible por otros usuarios ({})", keyFile,
+                            PosixFilePermissions.toString(permissions));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron comprobar los permisos del fichero de claves {}: {}", keyFile, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("No se pudo borrar el fichero temporal {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
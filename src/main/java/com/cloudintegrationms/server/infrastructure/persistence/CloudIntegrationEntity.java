@@ -1,18 +1,68 @@
 package com.cloudintegrationms.server.infrastructure.persistence;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "cloud_integrations")
+@Table(name = "cloud_integrations", indexes = {
+        @Index(name = "idx_cloud_integrations_user_provider_active", columnList = "user_id, provider, active"),
+        @Index(name = "idx_cloud_integrations_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_cloud_integrations_provider_active_expires", columnList = "provider, active, expires_at, id")
+})
 @Data
-public class CloudIntegrationEntity {
+public class CloudIntegrationEntity implements Persistable<String> {
     @Id
     private String id;
     private String userId;
     private String provider;
+    @Column(length = 4096)
     private String credentials;
     private boolean active;
-} 
\ No newline at end of file
+    private Instant expiresAt;
+
+    /**
+     * Reserva del refresco programado entre instancias; tras un fallo, instante del siguiente intento.
+     * Al guardar credenciales nuevas se vuelven a poner a cero junto con los fallos.
+     */
+    private Instant refreshClaimedUntil;
+    private int refreshFailures;
+
+    /**
+     * El id lo asigna quien llama, así que Spring Data no puede deducir si la entidad es nueva.
+     * Marcarla evita el select previo del merge y permite agrupar los inserts en lotes JDBC.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private boolean newEntity;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    public void markNew() {
+        this.newEntity = true;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.newEntity = false;
+    }
+}
@@ -0,0 +1,10 @@
+package com.cloudintegrationms.server.infrastructure.persistence;
+
+/**
+ * Proyección con las columnas que identifican una integración, sin credenciales.
+ */
+public interface CloudIntegrationKeyView {
+    String getId();
+    String getUserId();
+    String getProvider();
+}
@@ -1,23 +1,59 @@
 package com.cloudintegrationms.server.infrastructure.persistence;
 
 import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
+import com.cloudintegrationms.server.domain.event.CloudIntegrationChangedEvent;
 import com.cloudintegrationms.server.domain.model.CloudIntegration;
+import com.cloudintegrationms.server.domain.model.CloudIntegrationBatchResult;
+import com.cloudintegrationms.server.domain.model.CloudIntegrationPage;
+import com.cloudintegrationms.server.infrastructure.cache.CloudIntegrationCredentialCache;
+import com.cloudintegrationms.server.infrastructure.crypto.CredentialCipher;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class CloudIntegrationPersistenceAdapter implements CloudIntegrationUseCase {
     
     private final CloudIntegrationRepository repository;
+    private final CloudIntegrationCredentialCache credentialCache;
+    private final CredentialCipher credentialCipher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${cloud-integration.admin.deactivate-batch-size:500}")
+    private int deactivateBatchSize;
 
     @Override
     public CloudIntegration createIntegration(CloudIntegration integration) {
         CloudIntegrationEntity entity = toEntity(integration);
-        return toDomain(repository.save(entity));
+        CloudIntegration created = toDomain(repository.save(entity));
+        publishChange(created.getUserId(), created.getProvider());
+        return created;
     }
 
     @Override
@@ -36,33 +72,297 @@ public class CloudIntegrationPersistenceAdapter implements CloudIntegrationUseCa
     }
 
     @Override
+    public CloudIntegrationPage getUserIntegrationsPage(String userId, String cursor, int size) {
+        List<CloudIntegrationEntity> entities = cursor == null
+                ? repository.findByUserIdOrderByIdAsc(userId, Limit.of(size))
+                : repository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, cursor, Limit.of(size));
+        String nextCursor = entities.size() == size ? entities.get(entities.size() - 1).getId() : null;
+        return CloudIntegrationPage.builder()
+                .items(entities.stream().map(this::toDomain).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUserIntegrations(String userId, Consumer<CloudIntegration> consumer) {
+        try (Stream<CloudIntegrationEntity> entities = repository.streamByUserId(userId)) {
+            entities.forEach(entity -> {
+                consumer.accept(toDomain(entity));
+                // Se desvincula cada entidad para que el contexto de persistencia no crezca con el recorrido
+                entityManager.detach(entity);
+            });
+        }
+    }
+
+    @Override
+    @Transactional
     public void deleteIntegration(String id) {
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(existing -> {
+            repository.delete(existing);
+            publishChange(existing.getUserId(), existing.getProvider());
+        });
     }
 
     @Override
+    @Transactional
     public CloudIntegration updateIntegration(CloudIntegration integration) {
+        // La entidad previa queda en el contexto de persistencia, así el save no vuelve a consultarla
+        repository.findById(integration.getId())
+                .ifPresent(previous -> publishChange(previous.getUserId(), previous.getProvider()));
         CloudIntegrationEntity entity = toEntity(integration);
-        return toDomain(repository.save(entity));
+        CloudIntegration updated = toDomain(repository.save(entity));
+        publishChange(updated.getUserId(), updated.getProvider());
+        return updated;
+    }
+
+    @Override
+    public Optional<String> getActiveCredentials(String userId, String provider) {
+        // La caché guarda la credencial cifrada; solo se descifra la que se va a usar
+        return credentialCache.get(userId, provider, () -> repository
+                        .findActiveCredentials(userId, provider, Limit.of(1))
+                        .stream()
+                        .findFirst())
+                .map(stored -> credentialCipher.decrypt(stored, credentialContext(userId, provider)));
+    }
+
+    @Override
+    public Optional<CloudIntegration> getActiveIntegration(String userId, String provider) {
+        return repository.findByUserIdAndProviderAndActiveTrue(userId, provider, Limit.of(1))
+                .stream()
+                .findFirst()
+                .map(this::toDomain);
+    }
+
+    @Override
+    public boolean existsActiveIntegration(String userId, String provider) {
+        Optional<String> cached = credentialCache.getIfPresent(userId, provider);
+        if (cached != null) {
+            return cached.isPresent();
+        }
+        return repository.existsByUserIdAndProviderAndActiveTrue(userId, provider);
+    }
+
+    @Override
+    public List<CloudIntegration> getExpiringIntegrations(String provider, Instant before, CloudIntegration after, int size) {
+        Instant afterExpiresAt = after != null ? after.getExpiresAt() : Instant.EPOCH;
+        String afterId = after != null ? after.getId() : "";
+        return repository.findExpiring(provider, before, Instant.now(), afterExpiresAt, afterId, Limit.of(size))
+                .stream()
+                .map(this::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public boolean claimRefresh(String id, Instant before, Duration lease) {
+        Instant now = Instant.now();
+        return repository.claimRefresh(id, before, now, now.plus(lease)) == 1;
+    }
+
+    @Override
+    @Transactional
+    public Instant recordRefreshFailure(String id, Duration baseDelay, Duration maxDelay) {
+        return repository.findById(id)
+                .map(entity -> {
+                    // Se limita el exponente para que el desplazamiento no desborde
+                    Duration delay = baseDelay.multipliedBy(1L << Math.min(entity.getRefreshFailures(), 20));
+                    Instant retryAt = Instant.now().plus(delay.compareTo(maxDelay) > 0 ? maxDelay : delay);
+                    entity.setRefreshFailures(entity.getRefreshFailures() + 1);
+                    entity.setRefreshClaimedUntil(retryAt);
+                    return retryAt;
+                })
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public int deactivateIntegrations(String userId, String provider) {
+        int deactivated = repository.deactivateByUserIdAndProvider(userId, provider);
+        publishChange(userId, provider);
+        return deactivated;
+    }
+
+    @Override
+    public int deactivateProviderIntegrations(String provider, List<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return 0;
+        }
+        // Cada lote se confirma en su propia transacción para no retener la conexión durante toda la revocación
+        int deactivated = 0;
+        for (int from = 0; from < userIds.size(); from += deactivateBatchSize) {
+            List<String> batch = userIds.subList(from, Math.min(from + deactivateBatchSize, userIds.size()));
+            deactivated += transactionTemplate.execute(status -> repository.deactivateByProviderAndUserIds(provider, batch));
+        }
+        return providerDeactivated(provider, deactivated);
     }
 
-    private CloudIntegrationEntity toEntity(CloudIntegration domain) {
+    @Override
+    public int deactivateAllProviderIntegrations(String provider) {
+        int deactivated = 0;
+        List<String> ids;
+        while (!(ids = repository.findActiveIdsByProvider(provider, Limit.of(deactivateBatchSize))).isEmpty()) {
+            List<String> batch = ids;
+            deactivated += transactionTemplate.execute(status -> repository.deactivateByIds(batch));
+        }
+        return providerDeactivated(provider, deactivated);
+    }
+
+    private int providerDeactivated(String provider, int deactivated) {
+        eventPublisher.publishEvent(CloudIntegrationChangedEvent.forProvider(provider));
+        log.info("Desactivadas {} integraciones del proveedor {}", deactivated, provider);
+        return deactivated;
+    }
+
+    @Override
+    @Transactional
+    public List<CloudIntegrationBatchResult> createIntegrations(List<CloudIntegration> integrations) {
+        CloudIntegrationBatchResult[] results = new CloudIntegrationBatchResult[integrations.size()];
+        Set<String> requestedIds = new HashSet<>();
+        for (CloudIntegration integration : integrations) {
+            if (integration.getId() == null) {
+                integration.setId(UUID.randomUUID().toString());
+            }
+            requestedIds.add(integration.getId());
+        }
+        Set<String> existingIds = repository.findByIdIn(requestedIds).stream()
+                .map(CloudIntegrationKeyView::getId)
+                .collect(Collectors.toSet());
+
+        Set<String> seenIds = new HashSet<>();
+        List<CloudIntegrationEntity> toInsert = new ArrayList<>();
+        for (int i = 0; i < integrations.size(); i++) {
+            CloudIntegration integration = integrations.get(i);
+            String invalid = validate(integration);
+            if (invalid != null) {
+                results[i] = batchResult(i, integration.getId(), CloudIntegrationBatchResult.Status.INVALID, invalid);
+            } else if (existingIds.contains(integration.getId()) || !seenIds.add(integration.getId())) {
+                results[i] = batchResult(i, integration.getId(), CloudIntegrationBatchResult.Status.CONFLICT, "La integración ya existe");
+            } else {
+                CloudIntegrationEntity entity = toEntity(integration);
+                entity.markNew();
+                toInsert.add(entity);
+                results[i] = batchResult(i, integration.getId(), CloudIntegrationBatchResult.Status.CREATED, null);
+            }
+        }
+        repository.saveAll(toInsert);
+        toInsert.forEach(entity -> publishChange(entity.getUserId(), entity.getProvider()));
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional
+    public List<CloudIntegrationBatchResult> updateIntegrations(List<CloudIntegration> integrations) {
+        CloudIntegrationBatchResult[] results = new CloudIntegrationBatchResult[integrations.size()];
+        Set<String> requestedIds = integrations.stream()
+                .map(CloudIntegration::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        // Las entidades quedan gestionadas, así que los saveAll posteriores no vuelven a consultarlas
+        Map<String, CloudIntegrationEntity> existing = repository.findAllById(requestedIds).stream()
+                .collect(Collectors.toMap(CloudIntegrationEntity::getId, Function.identity()));
+
+        List<CloudIntegrationEntity> toUpdate = new ArrayList<>();
+        for (int i = 0; i < integrations.size(); i++) {
+            CloudIntegration integration = integrations.get(i);
+            String invalid = integration.getId() == null ? "El id es obligatorio" : validate(integration);
+            CloudIntegrationEntity entity = integration.getId() != null ? existing.get(integration.getId()) : null;
+            if (invalid != null) {
+                results[i] = batchResult(i, integration.getId(), CloudIntegrationBatchResult.Status.INVALID, invalid);
+            } else if (entity == null) {
+                results[i] = batchResult(i, integration.getId(), CloudIntegrationBatchResult.Status.NOT_FOUND, "La integración no existe");
+            } else {
+                publishChange(entity.getUserId(), entity.getProvider());
+                entity.setUserId(integration.getUserId());
+                entity.setProvider(integration.getProvider());
+                entity.setCredentials(encryptCredentials(integration));
+                entity.setActive(integration.isActive());
+                entity.setExpiresAt(integration.getExpiresAt());
+                // Igual que updateIntegration: credenciales nuevas liberan la reserva y salen del backoff de renovación
+                entity.setRefreshClaimedUntil(null);
+                entity.setRefreshFailures(0);
+                toUpdate.add(entity);
+                publishChange(entity.getUserId(), entity.getProvider());
+                results[i] = batchResult(i, integration.getId(), CloudIntegrationBatchResult.Status.UPDATED, null);
+            }
+        }
+        repository.saveAll(toUpdate);
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional
+    public List<CloudIntegrationBatchResult> deleteIntegrations(List<String> ids) {
+        Map<String, CloudIntegrationKeyView> existing = repository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(CloudIntegrationKeyView::getId, Function.identity()));
+        repository.deleteAllByIdInBatch(existing.keySet());
+        existing.values().forEach(key -> publishChange(key.getUserId(), key.getProvider()));
+
+        List<CloudIntegrationBatchResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            results.add(existing.containsKey(id)
+                    ? batchResult(i, id, CloudIntegrationBatchResult.Status.DELETED, null)
+                    : batchResult(i, id, CloudIntegrationBatchResult.Status.NOT_FOUND, "La integración no existe"));
+        }
+        return results;
+    }
+
+    private String validate(CloudIntegration integration) {
+        if (integration.getUserId() == null || integration.getProvider() == null) {
+            return "Se requieren los campos userId y provider";
+        }
+        return null;
+    }
+
+    private CloudIntegrationBatchResult batchResult(int index, String id, CloudIntegrationBatchResult.Status status, String error) {
+        return CloudIntegrationBatchResult.builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .error(error)
+                .build();
+    }
+
+    private void publishChange(String userId, String provider) {
+        if (userId != null && provider != null) {
+            eventPublisher.publishEvent(CloudIntegrationChangedEvent.forUser(userId, provider));
+        }
+    }
+
+    CloudIntegrationEntity toEntity(CloudIntegration domain) {
         CloudIntegrationEntity entity = new CloudIntegrationEntity();
         entity.setId(domain.getId());
         entity.setUserId(domain.getUserId());
         entity.setProvider(domain.getProvider());
-        entity.setCredentials(domain.getCredentials());
+        entity.setCredentials(encryptCredentials(domain));
         entity.setActive(domain.isActive());
+        entity.setExpiresAt(domain.getExpiresAt());
         return entity;
     }
 
-    private CloudIntegration toDomain(CloudIntegrationEntity entity) {
+    CloudIntegration toDomain(CloudIntegrationEntity entity) {
+        String stored = entity.getCredentials();
+        String context = credentialContext(entity.getUserId(), entity.getProvider());
         return CloudIntegration.builder()
                 .id(entity.getId())
                 .userId(entity.getUserId())
                 .provider(entity.getProvider())
-                .credentials(entity.getCredentials())
+                .credentialsLoader(stored != null ? () -> credentialCipher.decrypt(stored, context) : null)
                 .active(entity.isActive())
+                .expiresAt(entity.getExpiresAt())
                 .build();
     }
-} 
\ No newline at end of file
+
+    private String encryptCredentials(CloudIntegration integration) {
+        return credentialCipher.encrypt(integration.getCredentials(),
+                credentialContext(integration.getUserId(), integration.getProvider()));
+    }
+
+    /**
+     * Datos autenticados del cifrado: una credencial solo se descifra para el usuario y proveedor con que se cifró.
+     */
+    private static String credentialContext(String userId, String provider) {
+        return provider + ":" + userId;
+    }
+}
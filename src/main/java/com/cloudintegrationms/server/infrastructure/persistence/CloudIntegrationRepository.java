@@ -1,11 +1,98 @@
 package com.cloudintegrationms.server.infrastructure.persistence;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CloudIntegrationRepository extends JpaRepository<CloudIntegrationEntity, String> {
     List<CloudIntegrationEntity> findByUserId(String userId);
-} 
\ No newline at end of file
+
+    List<CloudIntegrationEntity> findByUserIdOrderByIdAsc(String userId, Limit limit);
+
+    List<CloudIntegrationEntity> findByUserIdAndIdGreaterThanOrderByIdAsc(String userId, String afterId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from CloudIntegrationEntity c where c.userId = :userId order by c.id")
+    Stream<CloudIntegrationEntity> streamByUserId(@Param("userId") String userId);
+
+    boolean existsByUserIdAndProviderAndActiveTrue(String userId, String provider);
+
+    /**
+     * Integración activa de un usuario con un proveedor, resuelta por el índice (user_id, provider, active).
+     */
+    List<CloudIntegrationEntity> findByUserIdAndProviderAndActiveTrue(String userId, String provider, Limit limit);
+
+    List<CloudIntegrationKeyView> findByIdIn(Collection<String> ids);
+
+    /**
+     * Proyección que solo lee la columna de credenciales de la integración activa,
+     * resuelta por el índice (user_id, provider, active).
+     */
+    @Query("select c.credentials from CloudIntegrationEntity c " +
+           "where c.userId = :userId and c.provider = :provider and c.active = true")
+    List<String> findActiveCredentials(@Param("userId") String userId,
+                                       @Param("provider") String provider,
+                                       Limit limit);
+
+    /**
+     * Integraciones activas de un proveedor que caducan antes de {@code before} y no están reservadas
+     * ni esperando un reintento, en orden de caducidad y paginadas por el cursor (expiresAt, id)
+     * de la última fila de la página anterior.
+     */
+    @Query("select c from CloudIntegrationEntity c " +
+           "where c.provider = :provider and c.active = true and c.expiresAt < :before " +
+           "and (c.refreshClaimedUntil is null or c.refreshClaimedUntil <= :now) " +
+           "and (c.expiresAt > :afterExpiresAt or (c.expiresAt = :afterExpiresAt and c.id > :afterId)) " +
+           "order by c.expiresAt, c.id")
+    List<CloudIntegrationEntity> findExpiring(@Param("provider") String provider,
+                                              @Param("before") Instant before,
+                                              @Param("now") Instant now,
+                                              @Param("afterExpiresAt") Instant afterExpiresAt,
+                                              @Param("afterId") String afterId,
+                                              Limit limit);
+
+    /**
+     * Reserva el refresco de una integración si nadie la tiene reservada y sigue caducando antes de
+     * {@code before}. La condición se evalúa sobre la fila bloqueada por el update, así que de varias
+     * instancias compitiendo solo una obtiene 1, y ninguna reserva una fila que otra ya renovó.
+     */
+    @Modifying
+    @Query("update CloudIntegrationEntity c set c.refreshClaimedUntil = :until " +
+           "where c.id = :id and c.active = true and c.expiresAt < :before " +
+           "and (c.refreshClaimedUntil is null or c.refreshClaimedUntil <= :now)")
+    int claimRefresh(@Param("id") String id, @Param("before") Instant before,
+                     @Param("now") Instant now, @Param("until") Instant until);
+
+    @Query("select c.id from CloudIntegrationEntity c where c.provider = :provider and c.active = true")
+    List<String> findActiveIdsByProvider(@Param("provider") String provider, Limit limit);
+
+    @Modifying
+    @Query("update CloudIntegrationEntity c set c.active = false " +
+           "where c.userId = :userId and c.provider = :provider and c.active = true")
+    int deactivateByUserIdAndProvider(@Param("userId") String userId, @Param("provider") String provider);
+
+    @Modifying
+    @Query("update CloudIntegrationEntity c set c.active = false " +
+           "where c.provider = :provider and c.active = true and c.userId in :userIds")
+    int deactivateByProviderAndUserIds(@Param("provider") String provider,
+                                       @Param("userIds") Collection<String> userIds);
+
+    @Modifying
+    @Query("update CloudIntegrationEntity c set c.active = false where c.id in :ids and c.active = true")
+    int deactivateByIds(@Param("ids") Collection<String> ids);
+}
@@ -1,12 +1,22 @@
 package com.cloudintegrationms.server.infrastructure.web;
 
+import com.cloudintegrationms.domain.provider.CloudProvider;
 import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
 import com.cloudintegrationms.server.domain.model.CloudIntegration;
+import com.cloudintegrationms.server.domain.model.CloudIntegrationBatchResult;
+import com.cloudintegrationms.server.domain.model.CloudIntegrationPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/cloud")
@@ -14,6 +24,13 @@ import java.util.List;
 public class CloudIntegrationController {
 
     private final CloudIntegrationUseCase cloudIntegrationUseCase;
+    private final ObjectMapper objectMapper;
+
+    @Value("${cloud-integration.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${cloud-integration.pagination.max-page-size:500}")
+    private int maxPageSize;
 
     @PostMapping
     public ResponseEntity<CloudIntegration> createIntegration(@RequestBody CloudIntegration integration) {
@@ -31,6 +48,33 @@ public class CloudIntegrationController {
         return ResponseEntity.ok(cloudIntegrationUseCase.getUserIntegrations(userId));
     }
 
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<CloudIntegrationPage> getUserIntegrationsPage(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        return ResponseEntity.ok(cloudIntegrationUseCase.getUserIntegrationsPage(userId, cursor, pageSize));
+    }
+
+    /**
+     * Emite las integraciones del usuario como NDJSON a medida que se leen de la base de datos.
+     */
+    @GetMapping(value = "/user/{userId}/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUserIntegrations(@PathVariable String userId) {
+        StreamingResponseBody body = outputStream -> cloudIntegrationUseCase.streamUserIntegrations(userId, integration -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(integration));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteIntegration(@PathVariable String id) {
         cloudIntegrationUseCase.deleteIntegration(id);
@@ -42,4 +86,56 @@ public class CloudIntegrationController {
         integration.setId(id);
         return ResponseEntity.ok(cloudIntegrationUseCase.updateIntegration(integration));
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<CloudIntegrationBatchResult>> createIntegrations(@RequestBody List<CloudIntegration> integrations) {
+        if (integrations.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(cloudIntegrationUseCase.createIntegrations(integrations));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<List<CloudIntegrationBatchResult>> updateIntegrations(@RequestBody List<CloudIntegration> integrations) {
+        if (integrations.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(cloudIntegrationUseCase.updateIntegrations(integrations));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<CloudIntegrationBatchResult>> deleteIntegrations(@RequestBody List<String> ids) {
+        if (ids.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(cloudIntegrationUseCase.deleteIntegrations(ids));
+    }
+
+    /**
+     * Revoca por lotes las integraciones de un proveedor, p. ej. tras un incidente del proveedor.
+     * Hay que indicar los userIds afectados en el cuerpo o confirmar con {@code all=true} que se desactivan
+     * las integraciones de todos los usuarios; una petición sin ninguno de los dos se rechaza.
+     */
+    @PostMapping("/admin/providers/{provider}/deactivate")
+    public ResponseEntity<Map<String, Object>> deactivateProviderIntegrations(
+            @PathVariable String provider,
+            @RequestParam(defaultValue = "false") boolean all,
+            @RequestBody(required = false) Map<String, List<String>> request) {
+        if (CloudProvider.fromKey(provider).isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Proveedor no soportado: " + provider));
+        }
+        List<String> userIds = request != null ? request.get("userIds") : null;
+        boolean hasUserIds = userIds != null && !userIds.isEmpty();
+        if (all == hasUserIds) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Indica los userIds a desactivar o all=true para desactivar todas las integraciones del proveedor, pero no ambos"));
+        }
+        int deactivated = all
+                ? cloudIntegrationUseCase.deactivateAllProviderIntegrations(provider)
+                : cloudIntegrationUseCase.deactivateProviderIntegrations(provider, userIds);
+        return ResponseEntity.ok(Map.of(
+                "provider", provider,
+                "deactivated", deactivated
+        ));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,12 @@
+-- La tabla puede existir ya si fue creada por Hibernate antes de introducir Flyway
+CREATE TABLE IF NOT EXISTS cloud_integrations (
+    id          VARCHAR(255) NOT NULL PRIMARY KEY,
+    user_id     VARCHAR(255),
+    provider    VARCHAR(255),
+    credentials VARCHAR(255),
+    active      BOOLEAN      NOT NULL
+);
+
+-- Sirve la búsqueda de la integración activa de un usuario para un proveedor
+CREATE INDEX IF NOT EXISTS idx_cloud_integrations_user_provider_active
+    ON cloud_integrations (user_id, provider, active);
@@ -0,0 +1,3 @@
+-- Sirve la paginación por cursor (keyset) de las integraciones de un usuario ordenadas por id
+CREATE INDEX IF NOT EXISTS idx_cloud_integrations_user_id
+    ON cloud_integrations (user_id, id);
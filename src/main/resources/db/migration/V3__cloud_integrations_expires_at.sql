@@ -0,0 +1,9 @@
+-- Caducidad del token de acceso; nula para proveedores cuyos tokens no caducan
+ALTER TABLE cloud_integrations ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP WITH TIME ZONE;
+
+-- Las credenciales con token de acceso y de refresco no caben en 255 caracteres
+ALTER TABLE cloud_integrations ALTER COLUMN credentials SET DATA TYPE VARCHAR(4096);
+
+-- Sirve el recorrido por cursor de las integraciones activas de un proveedor próximas a caducar
+CREATE INDEX IF NOT EXISTS idx_cloud_integrations_provider_active_expires
+    ON cloud_integrations (provider, active, expires_at, id);
@@ -0,0 +1,6 @@
+-- Reserva del refresco programado: mientras no pase, ninguna otra instancia lo intenta.
+-- Tras un fallo se reutiliza como instante del siguiente intento
+ALTER TABLE cloud_integrations ADD COLUMN IF NOT EXISTS refresh_claimed_until TIMESTAMP WITH TIME ZONE;
+
+-- Fallos consecutivos de refresco, para espaciar los reintentos
+ALTER TABLE cloud_integrations ADD COLUMN IF NOT EXISTS refresh_failures INTEGER NOT NULL DEFAULT 0;
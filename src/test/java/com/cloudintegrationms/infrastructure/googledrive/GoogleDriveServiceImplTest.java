@@ -0,0 +1,56 @@
+package com.cloudintegrationms.infrastructure.googledrive;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GoogleDriveServiceImplTest {
+
+    private GoogleDriveStubServer stub;
+    private GoogleDriveServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new GoogleDriveStubServer();
+        service = new GoogleDriveServiceImpl(new OkHttpClient(), stub.baseUrl(),
+                stub.baseUrl() + "/auth", stub.baseUrl() + "/token",
+                DataSize.ofBytes(GoogleDriveServiceImpl.CHUNK_GRANULARITY), Duration.ofSeconds(30),
+                3, Duration.ofMillis(10), 2, Duration.ZERO, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void uploadsInChunksAndResumesAfterDroppedChunk() {
+        byte[] content = new byte[4 * GoogleDriveServiceImpl.CHUNK_GRANULARITY + 12_345];
+        new Random(42).nextBytes(content);
+        // Se cae a mitad del segundo fragmento después de que Drive guardara parte de él
+        stub.failOnceAfter(GoogleDriveServiceImpl.CHUNK_GRANULARITY + 100_000);
+
+        String fileId = service.uploadFile(new ByteArrayInputStream(content), content.length,
+                "informe.pdf", "application/pdf", "token");
+
+        assertThat(stub.uploadedBytes(fileId)).isEqualTo(content);
+        assertThat(stub.statusQueries()).isEqualTo(1);
+        assertThat(service.getFileViewUrl(fileId, "token")).endsWith("/" + fileId + "/view");
+    }
+
+    @Test
+    void uploadsEmptyFile() {
+        String fileId = service.uploadFile(new ByteArrayInputStream(new byte[0]), 0, "vacio.txt", "text/plain", "token");
+
+        assertThat(stub.uploadedBytes(fileId)).isEmpty();
+    }
+}
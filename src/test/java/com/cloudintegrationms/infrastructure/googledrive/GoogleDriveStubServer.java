@@ -0,0 +1,123 @@
+package com.cloudintegrationms.infrastructure.googledrive;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor local que imita el protocolo de subida reanudable de Drive y los endpoints de archivos.
+ * Con {@link #failOnceAfter(long)} guarda solo parte de un fragmento y responde 503, como una conexión caída.
+ */
+class GoogleDriveStubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<String, ByteArrayOutputStream> uploads = new ConcurrentHashMap<>();
+    private final Map<String, Long> expectedSizes = new ConcurrentHashMap<>();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger statusQueries = new AtomicInteger();
+    private final AtomicLong failAfter = new AtomicLong(-1);
+
+    GoogleDriveStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/upload/drive/v3/files", this::handleUpload);
+        server.createContext("/drive/v3/files/", this::handleFile);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void failOnceAfter(long byteOffset) {
+        failAfter.set(byteOffset);
+    }
+
+    byte[] uploadedBytes(String fileId) {
+        return uploads.get(fileId).toByteArray();
+    }
+
+    int statusQueries() {
+        return statusQueries.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handleUpload(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        if ("POST".equals(exchange.getRequestMethod())) {
+            String id = "file-" + sessions.incrementAndGet();
+            uploads.put(id, new ByteArrayOutputStream());
+            expectedSizes.put(id, Long.parseLong(exchange.getRequestHeaders().getFirst("X-Upload-Content-Length")));
+            exchange.getResponseHeaders().add("Location", baseUrl() + "/upload/drive/v3/files?uploadType=resumable&upload_id=" + id);
+            respond(exchange, 200, "{}");
+            return;
+        }
+
+        String id = query.substring(query.indexOf("upload_id=") + "upload_id=".length());
+        ByteArrayOutputStream received = uploads.get(id);
+        long total = expectedSizes.get(id);
+        String range = exchange.getRequestHeaders().getFirst("Content-Range");
+        byte[] body = exchange.getRequestBody().readAllBytes();
+
+        if (range.startsWith("bytes */")) {
+            statusQueries.incrementAndGet();
+        } else {
+            long start = Long.parseLong(range.substring("bytes ".length(), range.indexOf('-')));
+            if (start != received.size()) {
+                respond(exchange, 400, "{\"error\":\"offset\"}");
+                return;
+            }
+            long cut = failAfter.get();
+            if (cut >= start && cut < start + body.length && failAfter.compareAndSet(cut, -1)) {
+                received.write(body, 0, (int) (cut - start));
+                respond(exchange, 503, "{\"error\":\"backendError\"}");
+                return;
+            }
+            received.write(body, 0, body.length);
+        }
+
+        if (received.size() == total) {
+            respond(exchange, 200, "{\"id\":\"" + id + "\"}");
+            return;
+        }
+        if (received.size() > 0) {
+            exchange.getResponseHeaders().add("Range", "bytes=0-" + (received.size() - 1));
+        }
+        respond(exchange, 308, "");
+    }
+
+    private void handleFile(HttpExchange exchange) throws IOException {
+        String id = exchange.getRequestURI().getPath().substring("/drive/v3/files/".length());
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            uploads.remove(id);
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+            return;
+        }
+        respond(exchange, 200, "{\"webViewLink\":\"https://drive.google.com/file/d/" + id + "/view\"}");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        try (InputStream ignored = exchange.getRequestBody()) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                exchange.getResponseBody().write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
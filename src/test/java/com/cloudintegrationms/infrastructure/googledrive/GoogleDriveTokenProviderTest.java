@@ -0,0 +1,72 @@
+package com.cloudintegrationms.infrastructure.googledrive;
+
+import com.cloudintegrationms.domain.googledrive.GoogleDriveService;
+import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
+import com.cloudintegrationms.server.domain.model.CloudIntegration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GoogleDriveTokenProviderTest {
+
+    @Test
+    void concurrentRequestsShareOneRefreshSavedIntoTheRowItWasReadFrom() throws Exception {
+        String expiring = new GoogleDriveCredentials("old-access", "refresh-1", Instant.now()).toJson();
+        AtomicReference<String> stored = new AtomicReference<>(expiring);
+        CloudIntegrationUseCase useCase = mock(CloudIntegrationUseCase.class);
+        // La caché sigue sirviendo el token caducado; la fila es la que refleja el refresco
+        when(useCase.getActiveCredentials("user-1", "google-drive")).thenReturn(Optional.of(expiring));
+        when(useCase.getActiveIntegration("user-1", "google-drive")).thenAnswer(invocation -> Optional.of(
+                CloudIntegration.builder().id("drive-1").userId("user-1").provider("google-drive")
+                        .credentials(stored.get()).active(true).build()));
+        when(useCase.updateIntegration(any())).thenAnswer(invocation -> {
+            CloudIntegration integration = invocation.getArgument(0);
+            assertThat(integration.getId()).isEqualTo("drive-1");
+            stored.set(integration.getCredentials());
+            return integration;
+        });
+
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        GoogleDriveService googleDriveService = mock(GoogleDriveService.class);
+        when(googleDriveService.refreshAccessToken("refresh-1")).thenAnswer(invocation -> {
+            refreshes.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("access_token", "new-access", "expires_in", "3600");
+        });
+        GoogleDriveTokenProvider tokenProvider = new GoogleDriveTokenProvider(googleDriveService, useCase);
+
+        List<Future<Optional<String>>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                calls.add(executor.submit(() -> tokenProvider.getAccessToken("user-1")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Optional<String>> call : calls) {
+                assertThat(call.get(5, TimeUnit.SECONDS)).contains("new-access");
+            }
+        }
+
+        assertThat(refreshes).hasValue(1);
+        verify(useCase, never()).getUserIntegrations(any());
+    }
+}
@@ -0,0 +1,27 @@
+package com.cloudintegrationms.infrastructure.http;
+
+import com.cloudintegrationms.infrastructure.resilience.ProviderUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadBufferPoolTest {
+
+    @Test
+    void rejectsWhenExhaustedAndReusesReleasedBuffers() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UploadBufferPool pool = new UploadBufferPool("google-drive", 1024, 1, Duration.ZERO, meterRegistry);
+
+        byte[] buffer = pool.acquire();
+        assertThat(buffer).hasSize(1024);
+        assertThat(meterRegistry.get("provider.upload.buffers.in.use").gauge().value()).isEqualTo(1);
+        assertThatThrownBy(pool::acquire).isInstanceOf(ProviderUnavailableException.class);
+
+        pool.release(buffer);
+        assertThat(pool.acquire()).isSameAs(buffer);
+    }
+}
@@ -0,0 +1,219 @@
+package com.cloudintegrationms.infrastructure.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arnés de carga: levanta el servicio web con {@code spring.threads.virtual.enabled} a false y a true, con un
+ * controlador que llama de forma bloqueante ({@code execute()}, como los adaptadores) a un proveedor simulado
+ * lento a través del cliente de {@link ProviderHttpClientConfig}, y compara el rendimiento y el p99 de ambos modos.
+ * Con hilos de plataforma las peticiones esperan un hilo libre del pool de Tomcat; con hilos virtuales cada
+ * petición tiene el suyo y la concurrencia hacia el proveedor la acota {@link HostConcurrencyLimiter}.
+ * <p>
+ * Se ejecuta bajo demanda: {@code mvn -Pbenchmark test -Dtest=VirtualThreadLoadTest}
+ */
+@Tag("benchmark")
+class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 4000);
+    private static final int PLATFORM_THREADS = Integer.getInteger("loadtest.platform-threads", 200);
+    private static final int MAX_IN_FLIGHT_PER_HOST = Integer.getInteger("loadtest.max-in-flight", 1000);
+    private static final long UPSTREAM_LATENCY_MS = Long.getLong("loadtest.upstream-latency-ms", 200);
+
+    private HttpServer upstream;
+
+    @BeforeEach
+    void startSlowUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.createContext("/v1/users/me", exchange -> {
+            try {
+                Thread.sleep(UPSTREAM_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"object\":\"user\"}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void comparesPlatformAndVirtualRequestThreads() throws Exception {
+        Result platform = run("platform", false);
+        Result virtual = run("virtual", true);
+
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+        assertThat(platform.virtualHandlers()).isZero();
+        assertThat(virtual.virtualHandlers()).isEqualTo(REQUESTS);
+    }
+
+    private Result run(String mode, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoadTestApplication.class)
+                .web(WebApplicationType.SERVLET)
+                // Argumentos de línea de comandos para que prevalezcan sobre application.yml
+                .run(
+                        "--SPRING_APPLICATION_NAME=cloudintegrationms-loadtest",
+                        "--spring.cloud.config.enabled=false",
+                        "--spring.config.import=",
+                        "--server.port=0",
+                        "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "--server.tomcat.accept-count=" + REQUESTS,
+                        "--server.tomcat.max-connections=" + (REQUESTS + PLATFORM_THREADS),
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--cloud-integration.http.max-in-flight-per-host=" + MAX_IN_FLIGHT_PER_HOST,
+                        "--cloud-integration.http.max-idle-connections=" + MAX_IN_FLIGHT_PER_HOST,
+                        "--loadtest.upstream-url=http://127.0.0.1:" + upstream.getAddress().getPort() + "/v1/users/me")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://127.0.0.1:" + port + "/load/provider-call");
+
+            HttpClient callers = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            List<Future<String>> calls = new ArrayList<>(REQUESTS);
+            long start = System.nanoTime();
+            // Cada cliente bloquea hasta tener la respuesta, como un usuario que espera a que se cargue la página
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    calls.add(clients.submit(() -> {
+                        long sent = System.nanoTime();
+                        HttpResponse<String> response = callers.send(
+                                HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(2)).build(),
+                                HttpResponse.BodyHandlers.ofString());
+                        latencies.add(System.nanoTime() - sent);
+                        return response.statusCode() == 200 ? response.body() : null;
+                    }));
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            int failures = 0;
+            int virtualHandlers = 0;
+            for (Future<String> call : calls) {
+                try {
+                    String handlerThread = call.get();
+                    if (handlerThread == null) {
+                        failures++;
+                    } else if (Boolean.parseBoolean(handlerThread)) {
+                        virtualHandlers++;
+                    }
+                } catch (Exception e) {
+                    failures++;
+                }
+            }
+
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            long p99 = sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+            return new Result(mode, REQUESTS / (elapsed / 1_000_000_000.0), Duration.ofNanos(p99), failures, virtualHandlers);
+        }
+    }
+
+    private record Result(String mode, double throughput, Duration p99, int failures, int virtualHandlers) {
+        @Override
+        public String toString() {
+            return String.format("%-8s %8.1f req/s  p99=%5d ms  fallos=%d", mode, throughput, p99.toMillis(), failures);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @Import({ProviderHttpClientConfig.class, ProviderCallController.class})
+    static class LoadTestApplication {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        WebClient.Builder webClientBuilder() {
+            return WebClient.builder();
+        }
+    }
+
+    /**
+     * Petición entrante que llama al proveedor de forma bloqueante; responde si se atendió en un hilo virtual.
+     */
+    @RestController
+    static class ProviderCallController {
+
+        private final OkHttpClient providerHttpClient;
+        private final String upstreamUrl;
+
+        ProviderCallController(OkHttpClient providerHttpClient, @Value("${loadtest.upstream-url}") String upstreamUrl) {
+            this.providerHttpClient = providerHttpClient;
+            this.upstreamUrl = upstreamUrl;
+        }
+
+        @GetMapping("/load/provider-call")
+        ResponseEntity<String> providerCall() throws IOException {
+            try (Response response = providerHttpClient.newCall(new Request.Builder().url(upstreamUrl).build()).execute()) {
+                if (!response.isSuccessful()) {
+                    return ResponseEntity.status(response.code()).build();
+                }
+                return ResponseEntity.ok(Boolean.toString(Thread.currentThread().isVirtual()));
+            }
+        }
+    }
+}
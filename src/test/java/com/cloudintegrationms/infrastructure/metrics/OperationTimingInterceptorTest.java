@@ -0,0 +1,66 @@
+package com.cloudintegrationms.infrastructure.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OperationTimingInterceptorTest {
+
+    interface Lookup {
+        String credentials(String userId, String provider);
+
+        CompletableFuture<String> fetch(String userId);
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tagsByOperationKnownProviderAndOutcome() {
+        Lookup lookup = proxy(new Lookup() {
+            @Override
+            public String credentials(String userId, String provider) {
+                if (userId == null) {
+                    throw new IllegalArgumentException("userId");
+                }
+                return "token";
+            }
+
+            @Override
+            public CompletableFuture<String> fetch(String userId) {
+                return CompletableFuture.failedFuture(new IllegalStateException("caído"));
+            }
+        });
+
+        lookup.credentials("user-1", "notion");
+        lookup.credentials("user-2", "notion");
+        lookup.credentials("user-1", "dropbox");
+        assertThatThrownBy(() -> lookup.credentials(null, "google-drive")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(lookup.fetch("user-1")).isCompletedExceptionally();
+
+        assertThat(timerCount("credentials", "notion", "success")).isEqualTo(2);
+        assertThat(timerCount("credentials", "none", "success")).isEqualTo(1);
+        assertThat(timerCount("credentials", "google-drive", "error")).isEqualTo(1);
+        assertThat(meterRegistry.get(OperationTimingInterceptor.METRIC).tag("operation", "fetch")
+                .tag("exception", "IllegalStateException").timer().count()).isEqualTo(1);
+    }
+
+    private long timerCount(String operation, String provider, String outcome) {
+        return meterRegistry.get(OperationTimingInterceptor.METRIC)
+                .tag("component", "test")
+                .tag("operation", operation)
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .timer().count();
+    }
+
+    private Lookup proxy(Lookup target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(new OperationTimingInterceptor(meterRegistry, "test", null));
+        return (Lookup) proxyFactory.getProxy();
+    }
+}
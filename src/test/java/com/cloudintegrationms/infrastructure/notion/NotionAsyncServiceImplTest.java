@@ -0,0 +1,121 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.infrastructure.resilience.ProviderCallGuards;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotionAsyncServiceImplTest {
+
+    private static final String CONTENT = IntStream.range(0, 250)
+            .mapToObj(i -> "Párrafo " + i)
+            .collect(Collectors.joining("\n\n"));
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<Integer> blocksPerCall = new ArrayList<>();
+
+    @Test
+    void sendsTheContentAsChildrenInChunksOfOneHundredBlocks() {
+        NotionAsyncServiceImpl service = service(-1);
+
+        assertThat(service.createPage("parent", "Título", CONTENT, "secret_token").join()).isEqualTo("page-1");
+        assertThat(calls).containsExactly("POST /v1/pages", "PATCH /v1/blocks/page-1/children",
+                "PATCH /v1/blocks/page-1/children");
+        assertThat(blocksPerCall).containsExactly(100, 100, 50);
+    }
+
+    @Test
+    void reportsThePageIdWhenAppendingContentFails() {
+        NotionAsyncServiceImpl service = service(2);
+
+        assertThatThrownBy(() -> service.createPage("parent", "Título", CONTENT, "secret_token").join())
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .isInstanceOf(NotionPartialPageException.class)
+                .hasMessageContaining("a partir del bloque 200")
+                .extracting("pageId").isEqualTo("page-1");
+    }
+
+    /**
+     * Servicio cuyo WebClient responde en memoria; la llamada número failingCall (empezando en 0) devuelve un 500.
+     */
+    private NotionAsyncServiceImpl service(int failingCall) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    int call = calls.size();
+                    calls.add(request.method() + " " + request.url().getPath());
+                    MockClientHttpRequest body = new MockClientHttpRequest(request.method(), request.url());
+                    return request.body().insert(body, new BodyContext())
+                            .then(Mono.defer(body::getBodyAsString))
+                            .map(json -> {
+                                Map<String, Object> payload = readMap(json);
+                                blocksPerCall.add(((List<?>) payload.getOrDefault("children", List.of())).size());
+                                if (call == failingCall) {
+                                    return ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                                }
+                                return ClientResponse.create(HttpStatus.OK)
+                                        .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                                        .body(request.method() == HttpMethod.POST ? "{\"id\":\"page-1\"}" : "{}")
+                                        .build();
+                            });
+                })
+                .build();
+        NotionRateLimiter rateLimiter = new NotionRateLimiter(1000, 1000, Duration.ofSeconds(1), 10, 0,
+                Duration.ofMillis(10), Duration.ofSeconds(1), new SimpleMeterRegistry());
+        ProviderCallGuards callGuards = new ProviderCallGuards(CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), Duration.ofSeconds(30));
+        return new NotionAsyncServiceImpl(webClient, rateLimiter, callGuards, "2022-06-28");
+    }
+
+    private static Map<String, Object> readMap(String json) {
+        try {
+            return NotionJson.MAP.readValue(json);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class BodyContext implements BodyInserter.Context {
+
+        private final ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+
+        @Override
+        public List<HttpMessageWriter<?>> messageWriters() {
+            return strategies.messageWriters();
+        }
+
+        @Override
+        public Optional<ServerHttpRequest> serverRequest() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Map<String, Object> hints() {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Despacho completo de {@link NotionController} sobre {@link NotionMockServiceImpl}: enlace de parámetros,
+ * búsqueda del token, llamada al servicio y serialización de la respuesta, sin red ni base de datos.
+ * La búsqueda real del token se mide aparte en {@code CloudIntegrationAdapterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NotionControllerBenchmark {
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        // El servicio simulado registra cada llamada; fuera de Spring Boot logback sale en DEBUG por consola
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        NotionMockServiceImpl notionService = new NotionMockServiceImpl();
+        CloudIntegrationUseCase useCase = (CloudIntegrationUseCase) Proxy.newProxyInstance(
+                CloudIntegrationUseCase.class.getClassLoader(), new Class<?>[]{CloudIntegrationUseCase.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getActiveCredentials")) {
+                        return Optional.of("secret_token");
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        NotionController controller = new NotionController(notionService, useCase,
+                new NotionTokenValidationCache(1000, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                new ObjectMapper(), new NotionPageBatchProcessor(notionService, 3));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getPage() throws Exception {
+        return mockMvc.perform(get("/api/v1/cloud/notion/pages/{pageId}", "b3f1c0de-0000-4000-8000-000000000001")
+                .param("userId", "user-1")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse listPages() throws Exception {
+        return mockMvc.perform(get("/api/v1/cloud/notion/pages")
+                .param("userId", "user-1")
+                .param("pageSize", "50")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse createPage() throws Exception {
+        return mockMvc.perform(post("/api/v1/cloud/notion/pages")
+                .param("userId", "user-1")
+                .param("parentId", "d0d0d0d0-2222-4333-8444-555566667777")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Acta de reunión\",\"content\":\"Puntos tratados en la reunión semanal\"}"))
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,130 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionPageList;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la decodificación anterior (cuerpo a String y árbol de Map) con la lectura tipada en streaming
+ * sobre respuestas de Notion realistas. Se ejecuta con {@code mvn -Pbenchmark test}, que activa {@code -prof gc}
+ * para informar también de los bytes asignados por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NotionDecodingBenchmark {
+
+    private static final int SEARCH_RESULTS = 100;
+
+    private final ObjectMapper legacyMapper = new ObjectMapper();
+    private byte[] pagePayload;
+    private byte[] searchPayload;
+
+    @Setup
+    public void setUp() throws IOException {
+        pagePayload = legacyMapper.writeValueAsBytes(page(0));
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int i = 0; i < SEARCH_RESULTS; i++) {
+            results.add(page(i));
+        }
+        Map<String, Object> search = new LinkedHashMap<>();
+        search.put("object", "list");
+        search.put("results", results);
+        search.put("next_cursor", "b3f1c0de-0000-4000-8000-000000000100");
+        search.put("has_more", true);
+        search.put("type", "page_or_database");
+        search.put("page_or_database", Map.of());
+        searchPayload = legacyMapper.writeValueAsBytes(search);
+    }
+
+    @Benchmark
+    public Object pageAsMap() throws IOException {
+        return legacyMapper.readValue(new String(pagePayload, StandardCharsets.UTF_8), Map.class);
+    }
+
+    @Benchmark
+    public Object pageTyped() throws IOException {
+        return NotionJson.PAGE.readValue(new ByteArrayInputStream(pagePayload));
+    }
+
+    @Benchmark
+    public Object searchAsMap() throws IOException {
+        return legacyMapper.readValue(new String(searchPayload, StandardCharsets.UTF_8), Map.class);
+    }
+
+    @Benchmark
+    public NotionPageList searchTyped() throws IOException {
+        return NotionJson.PAGE_LIST.readValue(new ByteArrayInputStream(searchPayload));
+    }
+
+    /**
+     * Página con la forma y el volumen típicos de la API: metadatos, icono, portada y varias propiedades.
+     */
+    private static Map<String, Object> page(int index) {
+        String id = String.format("b3f1c0de-0000-4000-8000-%012d", index);
+        Map<String, Object> user = Map.of("object", "user", "id", "9a7d2f4e-1111-4222-8333-444455556666");
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("Name", Map.of("id", "title", "type", "title", "title", List.of(richText("Acta de reunión " + index))));
+        properties.put("Resumen", Map.of("id", "%3AabC", "type", "rich_text", "rich_text",
+                List.of(richText("Puntos tratados y decisiones acordadas en la reunión semanal del equipo"))));
+        properties.put("Estado", Map.of("id", "Xy%3D1", "type", "select",
+                "select", Map.of("id", "1", "name", "En curso", "color", "blue")));
+        properties.put("Etiquetas", Map.of("id", "tG%7Bq", "type", "multi_select", "multi_select", List.of(
+                Map.of("id", "a", "name", "backend", "color", "green"),
+                Map.of("id", "b", "name", "api", "color", "purple"))));
+        properties.put("Fecha", Map.of("id", "D%40te", "type", "date",
+                "date", Map.of("start", "2024-03-01", "time_zone", "Europe/Madrid")));
+        properties.put("Revisado", Map.of("id", "ch%3Bk", "type", "checkbox", "checkbox", index % 2 == 0));
+        properties.put("Responsables", Map.of("id", "p%3Ep", "type", "people", "people", List.of(user)));
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("object", "page");
+        page.put("id", id);
+        page.put("created_time", "2024-03-01T09:30:00.000Z");
+        page.put("last_edited_time", "2024-03-04T17:12:00.000Z");
+        page.put("created_by", user);
+        page.put("last_edited_by", user);
+        page.put("cover", Map.of("type", "external", "external", Map.of("url", "https://images.example.com/cover.png")));
+        page.put("icon", Map.of("type", "emoji", "emoji", "📝"));
+        page.put("parent", Map.of("type", "database_id", "database_id", "d0d0d0d0-2222-4333-8444-555566667777"));
+        page.put("archived", false);
+        page.put("in_trash", false);
+        page.put("properties", properties);
+        page.put("url", "https://www.notion.so/Acta-" + id.replace("-", ""));
+        page.put("public_url", null);
+        return page;
+    }
+
+    private static Map<String, Object> richText(String content) {
+        Map<String, Object> text = new LinkedHashMap<>();
+        text.put("type", "text");
+        text.put("text", Map.of("content", content));
+        text.put("annotations", Map.of("bold", false, "italic", false, "strikethrough", false,
+                "underline", false, "code", false, "color", "default"));
+        text.put("plain_text", content);
+        text.put("href", null);
+        return text;
+    }
+}
@@ -0,0 +1,83 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionPage;
+import com.cloudintegrationms.domain.notion.NotionPageList;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotionJsonTest {
+
+    private static final String SEARCH_RESPONSE = """
+            {
+              "object": "list",
+              "results": [
+                {
+                  "object": "page",
+                  "id": "page-1",
+                  "created_time": "2024-03-01T09:30:00.000Z",
+                  "last_edited_time": "2024-03-04T17:12:00.000Z",
+                  "icon": {"type": "emoji", "emoji": "x"},
+                  "properties": {
+                    "Estado": {"id": "a", "type": "select", "select": {"name": "En curso"}},
+                    "Name": {"id": "title", "type": "title", "title": [
+                      {"type": "text", "text": {"content": "Acta "}, "plain_text": "Acta "},
+                      {"type": "text", "text": {"content": "semanal"}, "plain_text": "semanal", "href": null}
+                    ]}
+                  },
+                  "url": "https://www.notion.so/page-1",
+                  "public_url": null
+                },
+                {
+                  "object": "database",
+                  "id": "db-1",
+                  "title": [{"plain_text": "Tareas"}],
+                  "properties": {"Name": {"id": "title", "type": "title", "title": {}}},
+                  "url": null
+                }
+              ],
+              "next_cursor": "cursor-2",
+              "has_more": true,
+              "page_or_database": {}
+            }
+            """;
+
+    @Test
+    void readsTypedSearchResultsSkippingUnknownFields() throws Exception {
+        NotionPageList list = NotionJson.PAGE_LIST.readValue(SEARCH_RESPONSE);
+
+        assertThat(list.getNextCursor()).isEqualTo("cursor-2");
+        assertThat(list.isHasMore()).isTrue();
+        assertThat(list.getResults()).hasSize(2);
+
+        NotionPage page = list.getResults().get(0);
+        assertThat(page.getId()).isEqualTo("page-1");
+        assertThat(page.getTitle()).isEqualTo("Acta semanal");
+        assertThat(page.getUrl()).isEqualTo("https://www.notion.so/page-1");
+        assertThat(page.getCreatedTime()).isEqualTo(Instant.parse("2024-03-01T09:30:00Z"));
+        assertThat(page.getLastEditedTime()).isEqualTo(Instant.parse("2024-03-04T17:12:00Z"));
+
+        NotionPage database = list.getResults().get(1);
+        assertThat(database.getId()).isEqualTo("db-1");
+        assertThat(database.getTitle()).isEqualTo("Tareas");
+        assertThat(database.getUrl()).isNull();
+    }
+
+    @Test
+    void servesSearchResultsWithNotionFieldNames() throws Exception {
+        NotionPageList list = NotionJson.PAGE_LIST.readValue(SEARCH_RESPONSE);
+
+        // Equivalente al ObjectMapper de Spring Boot con el que responden los controladores
+        JsonNode served = JsonMapper.builder().findAndAddModules().build().valueToTree(list);
+
+        assertThat(served.get("object").asText()).isEqualTo("list");
+        assertThat(served.get("next_cursor").asText()).isEqualTo("cursor-2");
+        assertThat(served.get("has_more").asBoolean()).isTrue();
+        assertThat(served.has("nextCursor")).isFalse();
+        assertThat(served.get("results").get(0).has("last_edited_time")).isTrue();
+    }
+}
@@ -0,0 +1,46 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import com.cloudintegrationms.domain.notion.NotionPageBatchResult;
+import com.cloudintegrationms.domain.notion.NotionPageRequest;
+import com.cloudintegrationms.domain.notion.NotionService;
+import com.cloudintegrationms.infrastructure.http.ProviderHttpException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotionPageBatchProcessorTest {
+
+    private final NotionService notionService = mock(NotionService.class);
+    private final NotionPageBatchProcessor processor = new NotionPageBatchProcessor(notionService, 2);
+
+    @Test
+    void reportsPagesCreatedWithIncompleteContentAsPartialAndNotRetryable() {
+        when(notionService.createPage(eq("parent"), eq("completa"), any(), any())).thenReturn("page-1");
+        when(notionService.createPage(eq("parent"), eq("incompleta"), any(), any())).thenThrow(
+                new NotionPartialPageException("page-2", "Contenido incompleto", new ProviderHttpException(502, "Bad gateway")));
+        when(notionService.createPage(eq("parent"), eq("caida"), any(), any())).thenThrow(
+                new RuntimeException("Error al crear página en Notion", new ProviderHttpException(502, "Bad gateway")));
+
+        List<NotionPageBatchResult> report = processor.createPages(List.of(
+                request("completa"), request("incompleta"), request("caida")), "token");
+
+        assertThat(report).extracting(NotionPageBatchResult::getStatus).containsExactly(
+                NotionPageBatchResult.Status.CREATED,
+                NotionPageBatchResult.Status.PARTIAL,
+                NotionPageBatchResult.Status.FAILED);
+        assertThat(report.get(1).getPageId()).isEqualTo("page-2");
+        assertThat(report.get(1).isRetryable()).isFalse();
+        assertThat(report.get(2).getPageId()).isNull();
+        assertThat(report.get(2).isRetryable()).isTrue();
+    }
+
+    private static NotionPageRequest request(String title) {
+        return NotionPageRequest.builder().parentId("parent").title(title).content("contenido").build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotionPayloadsTest {
+
+    @Test
+    void splitsContentIntoBlocksWithinNotionLimits() {
+        String longParagraph = "a".repeat(NotionPayloads.MAX_TEXT_LENGTH * NotionPayloads.MAX_RICH_TEXT_PER_BLOCK + 10);
+        String content = "Primer párrafo\ncon salto de línea\n\n\n" + longParagraph + "\r\n\r\nÚltimo";
+
+        List<NotionPayloads.Block> blocks = NotionPayloads.paragraphs(content);
+
+        assertThat(blocks).hasSize(4);
+        assertThat(blocks.get(0).paragraph().richText()).singleElement()
+                .satisfies(text -> assertThat(text.text().content()).isEqualTo("Primer párrafo\ncon salto de línea"));
+        assertThat(blocks.get(1).paragraph().richText()).hasSize(NotionPayloads.MAX_RICH_TEXT_PER_BLOCK)
+                .allSatisfy(text -> assertThat(text.text().content()).hasSize(NotionPayloads.MAX_TEXT_LENGTH));
+        assertThat(blocks.get(2).paragraph().richText()).singleElement()
+                .satisfies(text -> assertThat(text.text().content()).hasSize(10));
+        assertThat(blocks.get(3).paragraph().richText().get(0).text().content()).isEqualTo("Último");
+        assertThat(NotionPayloads.paragraphs("  ")).isEmpty();
+    }
+}
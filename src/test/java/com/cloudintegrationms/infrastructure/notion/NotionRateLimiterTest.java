@@ -0,0 +1,38 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotionRateLimiterTest {
+
+    private static final String TOKEN = "secret_token";
+
+    @Test
+    void rejectedAndCancelledCallsGiveTheirTurnBack() throws Exception {
+        NotionRateLimiter limiter = limiter(1);
+
+        assertThat(limiter.reserve(TOKEN)).isZero();
+        Duration firstWait = limiter.reserve(TOKEN);
+        assertThat(firstWait).isPositive();
+
+        // Con la cola llena se rechazan sin acumular deuda en la cubeta
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> limiter.reserve(TOKEN)).isInstanceOf(NotionRateLimitException.class);
+        }
+
+        // La llamada en espera se cancela: su turno vuelve y la siguiente no espera más que ella
+        limiter.refund(TOKEN);
+        limiter.leaveQueue();
+        assertThat(limiter.reserve(TOKEN)).isLessThanOrEqualTo(firstWait);
+    }
+
+    private static NotionRateLimiter limiter(int maxQueued) {
+        return new NotionRateLimiter(1, 1, Duration.ofSeconds(30), maxQueued, 3,
+                Duration.ofMillis(500), Duration.ofSeconds(30), new SimpleMeterRegistry());
+    }
+}
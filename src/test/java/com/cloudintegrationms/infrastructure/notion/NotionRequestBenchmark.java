@@ -0,0 +1,60 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción del cuerpo de creación de página de Notion: troceo del contenido en bloques y serialización
+ * del primer fragmento, como hace {@link NotionServiceImpl#createPage}. La decodificación de respuestas se
+ * mide en {@link NotionDecodingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NotionRequestBenchmark {
+
+    private static final String PARENT_ID = "d0d0d0d0-2222-4333-8444-555566667777";
+
+    /**
+     * Caracteres de contenido: sin cuerpo, una nota corta y un documento largo que supera los límites por bloque.
+     */
+    @Param({"0", "2000", "200000"})
+    private int contentLength;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        String paragraph = "Puntos tratados y decisiones acordadas en la reunión semanal del equipo. ";
+        StringBuilder builder = new StringBuilder(contentLength + paragraph.length());
+        while (builder.length() < contentLength) {
+            builder.append(paragraph);
+            if (builder.length() % 1500 < paragraph.length()) {
+                builder.append("\n\n");
+            }
+        }
+        content = builder.substring(0, contentLength);
+    }
+
+    @Benchmark
+    public String buildCreatePageRequest() {
+        List<NotionPayloads.Block> blocks = NotionPayloads.paragraphs(content);
+        int firstChunk = Math.min(blocks.size(), NotionPayloads.MAX_BLOCKS_PER_REQUEST);
+        return NotionServiceImpl.buildCreatePageRequest(PARENT_ID, "Acta de reunión", blocks.subList(0, firstChunk));
+    }
+}
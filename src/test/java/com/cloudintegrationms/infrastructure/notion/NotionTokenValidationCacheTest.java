@@ -0,0 +1,52 @@
+package com.cloudintegrationms.infrastructure.notion;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotionTokenValidationCacheTest {
+
+    private final NotionTokenValidationCache cache = new NotionTokenValidationCache(
+            100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+    @Test
+    void transientFailuresAreNotCachedButRejectionsAre() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> cache.isValid("user-1", "secret_a", token -> {
+            calls.incrementAndGet();
+            throw new UncheckedIOException("Error al validar token de Notion", new SocketTimeoutException("timeout"));
+        })).isInstanceOf(UncheckedIOException.class);
+
+        // El siguiente intento vuelve a preguntar a Notion, y un rechazo definitivo sí se recuerda
+        assertThat(cache.isValid("user-1", "secret_a", token -> calls.incrementAndGet() < 0)).isFalse();
+        assertThat(cache.isValid("user-1", "secret_a", token -> calls.incrementAndGet() > 0)).isFalse();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void asyncTransientFailuresAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<Boolean> failed = cache.isValidAsync("user-2", "secret_b", token -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new SocketTimeoutException("timeout"));
+        });
+        assertThatThrownBy(failed::join).isInstanceOf(CompletionException.class);
+
+        assertThat(cache.isValidAsync("user-2", "secret_b", token -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(true);
+        }).join()).isTrue();
+        assertThat(calls).hasValue(2);
+    }
+}
@@ -0,0 +1,39 @@
+package com.cloudintegrationms.infrastructure.provider;
+
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.domain.provider.CloudProviderAdapter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CloudProviderRegistryTest {
+
+    @Test
+    void resolvesOnlyKnownAndEnabledProviders() {
+        CloudProviderAdapter drive = adapter(CloudProvider.GOOGLE_DRIVE);
+        CloudProviderRegistry registry = new CloudProviderRegistry(List.of(drive));
+
+        assertThat(registry.find("google-drive")).containsSame(drive);
+        assertThat(registry.find("notion")).isEmpty();
+        assertThat(registry.find("dropbox")).isEmpty();
+        assertThat(registry.find(null)).isEmpty();
+    }
+
+    @Test
+    void rejectsDuplicateAdapters() {
+        List<CloudProviderAdapter> adapters = List.of(adapter(CloudProvider.NOTION), adapter(CloudProvider.NOTION));
+
+        assertThatThrownBy(() -> new CloudProviderRegistry(adapters)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static CloudProviderAdapter adapter(CloudProvider provider) {
+        CloudProviderAdapter adapter = mock(CloudProviderAdapter.class);
+        when(adapter.provider()).thenReturn(provider);
+        return adapter;
+    }
+}
@@ -0,0 +1,114 @@
+package com.cloudintegrationms.infrastructure.provider;
+
+import com.cloudintegrationms.domain.provider.CloudProvider;
+import com.cloudintegrationms.domain.provider.CredentialRefresher;
+import com.cloudintegrationms.domain.provider.CredentialRevokedException;
+import com.cloudintegrationms.server.application.port.in.CloudIntegrationUseCase;
+import com.cloudintegrationms.server.domain.model.CloudIntegration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CredentialRefreshSchedulerTest {
+
+    private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+    private static final Duration RETRY_BASE_DELAY = Duration.ofMinutes(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+
+    @Test
+    void refreshesEveryExpiringIntegrationWithinTheProviderConcurrencyLimit() {
+        List<CloudIntegration> expiring = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expiring.add(CloudIntegration.builder().id("int-" + i).expiresAt(Instant.now()).active(true).build());
+        }
+        CloudIntegrationUseCase useCase = mock(CloudIntegrationUseCase.class);
+        when(useCase.getExpiringIntegrations(eq("google-drive"), any(), isNull(), anyInt())).thenReturn(expiring.subList(0, 2));
+        when(useCase.getExpiringIntegrations(eq("google-drive"), any(), eq(expiring.get(1)), anyInt())).thenReturn(expiring.subList(2, 4));
+        when(useCase.getExpiringIntegrations(eq("google-drive"), any(), eq(expiring.get(3)), anyInt())).thenReturn(expiring.subList(4, 5));
+        when(useCase.claimRefresh(any(), any(), any())).thenReturn(true);
+
+        ConcurrencyTrackingRefresher refresher = new ConcurrencyTrackingRefresher();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cloud-integration.credentials.refresh.concurrency.google-drive", "1");
+        CredentialRefreshScheduler scheduler = scheduler(refresher, useCase, environment, Duration.ofMillis(20), 2);
+
+        assertThat(scheduler.refreshExpiring(refresher)).isEqualTo(4);
+        assertThat(refresher.refreshed).containsExactlyInAnyOrder("int-0", "int-1", "int-2", "int-4");
+        assertThat(refresher.maxInFlight).hasValue(1);
+        verify(useCase).recordRefreshFailure("int-3", RETRY_BASE_DELAY, MAX_RETRY_DELAY);
+    }
+
+    @Test
+    void skipsIntegrationsClaimedByAnotherInstanceAndDeactivatesRevokedOnes() {
+        CloudIntegration claimedElsewhere = CloudIntegration.builder().id("int-0").userId("user-0").expiresAt(Instant.now()).active(true).build();
+        CloudIntegration revoked = CloudIntegration.builder().id("int-revoked").userId("user-1").expiresAt(Instant.now()).active(true).build();
+        CloudIntegrationUseCase useCase = mock(CloudIntegrationUseCase.class);
+        when(useCase.getExpiringIntegrations(eq("google-drive"), any(), isNull(), anyInt())).thenReturn(List.of(claimedElsewhere, revoked));
+        when(useCase.claimRefresh(eq("int-0"), any(), eq(CLAIM_TIMEOUT))).thenReturn(false);
+        when(useCase.claimRefresh(eq("int-revoked"), any(), eq(CLAIM_TIMEOUT))).thenReturn(true);
+
+        ConcurrencyTrackingRefresher refresher = new ConcurrencyTrackingRefresher();
+        CredentialRefreshScheduler scheduler = scheduler(refresher, useCase, new MockEnvironment(), Duration.ZERO, 10);
+
+        assertThat(scheduler.refreshExpiring(refresher)).isZero();
+        assertThat(refresher.refreshed).isEmpty();
+        verify(useCase).deactivateIntegrations("user-1", "google-drive");
+        verify(useCase, never()).recordRefreshFailure(any(), any(), any());
+    }
+
+    private static CredentialRefreshScheduler scheduler(CredentialRefresher refresher, CloudIntegrationUseCase useCase,
+                                                        MockEnvironment environment, Duration jitter, int batchSize) {
+        return new CredentialRefreshScheduler(List.of(refresher), useCase, environment, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ZERO, Duration.ofMinutes(10), jitter, batchSize, 4,
+                CLAIM_TIMEOUT, RETRY_BASE_DELAY, MAX_RETRY_DELAY);
+    }
+
+    private static class ConcurrencyTrackingRefresher implements CredentialRefresher {
+
+        private final Set<String> refreshed = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public CloudProvider provider() {
+            return CloudProvider.GOOGLE_DRIVE;
+        }
+
+        @Override
+        public void refresh(CloudIntegration integration) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (integration.getId().equals("int-3")) {
+                    throw new IllegalStateException("Error al refrescar el token de Google Drive");
+                }
+                if (integration.getId().equals("int-revoked")) {
+                    throw new CredentialRevokedException("Google rechaza la autorización (invalid_grant)");
+                }
+                Thread.sleep(5);
+                refreshed.add(integration.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
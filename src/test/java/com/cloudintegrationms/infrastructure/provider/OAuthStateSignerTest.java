@@ -0,0 +1,57 @@
+package com.cloudintegrationms.infrastructure.provider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OAuthStateSignerTest {
+
+    private static final String SECRET = "s".repeat(32);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void stateIssuedByOneInstanceIsAcceptedOnceByAnother() {
+        OAuthStateSigner issuer = signer(SECRET);
+        OAuthStateSigner callbackNode = signer(SECRET);
+
+        String state = issuer.issue("google-drive", "user-1");
+
+        assertThat(callbackNode.verify("google-drive", state)).contains("user-1");
+        assertThat(callbackNode.verify("google-drive", state)).isEmpty();
+        assertThat(rejections("replayed")).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsTamperedForeignExpiredAndOtherProviderStates() {
+        OAuthStateSigner signer = signer(SECRET);
+        String state = signer.issue("notion", "user-1");
+        String otherUser = signer.issue("notion", "user-2");
+        String tampered = otherUser.substring(0, otherUser.indexOf('.')) + state.substring(state.indexOf('.'));
+
+        assertThat(signer.verify("notion", tampered)).isEmpty();
+        assertThat(signer.verify("notion", signer(SECRET.replace('s', 't')).issue("notion", "user-1"))).isEmpty();
+        assertThat(signer.verify("notion", "sin-firma")).isEmpty();
+        assertThat(signer.verify("google-drive", state)).isEmpty();
+        assertThat(signer.verify("notion", state, Instant.now().plus(Duration.ofMinutes(11)))).isEmpty();
+        assertThat(signer.verify("notion", state)).contains("user-1");
+
+        assertThat(rejections("invalid_signature")).isEqualTo(2);
+        assertThat(rejections("malformed")).isEqualTo(1);
+        assertThat(rejections("wrong_provider")).isEqualTo(1);
+        assertThat(rejections("expired")).isEqualTo(1);
+    }
+
+    private OAuthStateSigner signer(String secret) {
+        return new OAuthStateSigner(secret, Duration.ofMinutes(10), 1000, meterRegistry);
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.find("oauth.state.rejected").tag("reason", reason).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+}
@@ -0,0 +1,110 @@
+package com.cloudintegrationms.infrastructure.resilience;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderResilienceInterceptorTest {
+
+    private final Bulkhead bulkhead = Bulkhead.of("notion", BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("notion");
+    private final ProviderCallGuard guard = new ProviderCallGuard("notion", circuitBreaker, bulkhead, Duration.ofSeconds(30));
+
+    @Test
+    void adaptersThatGuardEachRequestPassThroughTheProxy() {
+        SelfGuardedAdapter adapter = proxy(new SelfGuardedAdapter(bulkhead));
+
+        assertThat(adapter.fetchOne()).isEqualTo(1);
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+
+    @Test
+    void requestGuardLeavesEarlierWaitsOutsideTheBulkheadAndIgnoresThrottling() throws IOException {
+        HttpServer upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", exchange -> {
+            int status = Integer.parseInt(exchange.getRequestURI().getPath().substring(1));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        upstream.start();
+        List<Integer> permitsWhileWaitingForTurn = new ArrayList<>();
+        OkHttpClient client = new OkHttpClient.Builder()
+                // Hace las veces del limitador de peticiones, que espera turno antes del guard
+                .addInterceptor(chain -> {
+                    permitsWhileWaitingForTurn.add(bulkhead.getMetrics().getAvailableConcurrentCalls());
+                    return chain.proceed(chain.request());
+                })
+                .addInterceptor(new ProviderCallGuardInterceptor(guard))
+                .build();
+        try {
+            for (int status : new int[]{200, 429, 500}) {
+                String url = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/" + status;
+                client.newCall(new Request.Builder().url(url).build()).execute().close();
+            }
+        } finally {
+            upstream.stop(0);
+        }
+
+        assertThat(permitsWhileWaitingForTurn).containsExactly(1, 1, 1);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+        // El 429 ni suma ni resta: solo cuentan el 200 y el 500
+        assertThat(circuitBreaker.getMetrics().getNumberOfSuccessfulCalls()).isEqualTo(1);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void guardsPlainCallsAsAWhole() {
+        PlainAdapter adapter = proxy(new PlainAdapter(bulkhead));
+        bulkhead.tryAcquirePermission();
+
+        assertThatThrownBy(adapter::fetchOne)
+                .isInstanceOf(ProviderUnavailableException.class)
+                .extracting("reason").isEqualTo("bulkhead_full");
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new ProviderResilienceInterceptor(guard));
+        return (T) proxyFactory.getProxy();
+    }
+
+    static class PlainAdapter {
+
+        private final Bulkhead bulkhead;
+
+        PlainAdapter(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        public int fetchOne() {
+            return bulkhead.getMetrics().getAvailableConcurrentCalls();
+        }
+    }
+
+    @GuardsEachCall
+    static class SelfGuardedAdapter extends PlainAdapter {
+
+        SelfGuardedAdapter(Bulkhead bulkhead) {
+            super(bulkhead);
+        }
+    }
+}
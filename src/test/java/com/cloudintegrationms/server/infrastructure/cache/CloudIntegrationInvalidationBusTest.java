@@ -0,0 +1,72 @@
+package com.cloudintegrationms.server.infrastructure.cache;
+
+import com.cloudintegrationms.server.domain.event.CloudIntegrationChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class CloudIntegrationInvalidationBusTest {
+
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void appliesEveryRemoteChangeAndOnlyCountsOutOfOrderVersions() throws Exception {
+        CloudIntegrationInvalidationBus bus = bus();
+
+        bus.receive(payload("other", 2, "user-1"));
+        // La versión 1 pudo confirmarse después que la 2; descartarla dejaría una entrada obsoleta en caché
+        bus.receive(payload("other", 1, "user-1"));
+        bus.receive(payload("other", 3, "user-1"));
+        bus.receive(payload("other", 1, "user-2"));
+
+        verify(publisher, times(3)).publishEvent(CloudIntegrationChangedEvent.forUser("user-1", "notion").asRemote());
+        verify(publisher, times(1)).publishEvent(CloudIntegrationChangedEvent.forUser("user-2", "notion").asRemote());
+        assertThat(meterRegistry.get("cloud.integration.invalidation.received")
+                .tag("order", "out_of_order").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cloud.integration.invalidation.received")
+                .tag("order", "in_order").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void ignoresOwnNotificationsAndDoesNotSendRemoteEvents() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        CloudIntegrationInvalidationBus bus = bus(jdbcTemplate);
+
+        bus.onIntegrationChanged(CloudIntegrationChangedEvent.forUser("user-1", "notion").asRemote());
+        verifyNoInteractions(jdbcTemplate);
+
+        String instanceId = (String) ReflectionTestUtils.getField(bus, "instanceId");
+        bus.receive(payload(instanceId, 1, "user-1"));
+        verifyNoInteractions(publisher);
+    }
+
+    private CloudIntegrationInvalidationBus bus() {
+        return bus(mock(JdbcTemplate.class));
+    }
+
+    private CloudIntegrationInvalidationBus bus(JdbcTemplate jdbcTemplate) {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:postgresql://localhost:5432/cloud");
+        return new CloudIntegrationInvalidationBus(properties, jdbcTemplate, publisher, objectMapper, meterRegistry,
+                "cloud_integration_changes", Duration.ofMillis(100), Duration.ofMillis(100), 1000);
+    }
+
+    private String payload(String origin, long version, String userId) throws Exception {
+        return objectMapper.writeValueAsString(new CloudIntegrationInvalidationBus.Message(
+                origin, version, userId, "notion", System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.cloudintegrationms.server.infrastructure.crypto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición del cifrado de credenciales con la clave de datos ya desenvuelta en caché, que es el caso
+ * de la búsqueda de la credencial activa. La credencial es un JSON de Google Drive de tamaño realista.
+ * Se ejecuta con {@code mvn -Pbenchmark test -Dbenchmark.include=CredentialCipherBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CredentialCipherBenchmark {
+
+    private static final String CONTEXT = "google-drive:user-42";
+
+    private Path keyDir;
+    private CredentialCipher cipher;
+    private String credentials;
+    private String stored;
+
+    @Setup
+    public void setUp() throws IOException {
+        keyDir = Files.createTempDirectory("credential-cipher-benchmark");
+        cipher = new CredentialCipher(new LocalFileDataKeyProvider(keyDir.resolve("master.key"), true),
+                Duration.ofHours(24), Long.MAX_VALUE, 1000, Duration.ofHours(1), new SimpleMeterRegistry());
+        credentials = "{\"accessToken\":\"ya29." + "a".repeat(200) + "\",\"refreshToken\":\"1//"
+                + "r".repeat(100) + "\",\"expiresAt\":\"2026-10-17T10:00:00Z\"}";
+        stored = cipher.encrypt(credentials, CONTEXT);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(keyDir.resolve("master.key"));
+        Files.deleteIfExists(keyDir);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cipher.decrypt(stored, CONTEXT);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return cipher.encrypt(credentials, CONTEXT);
+    }
+}
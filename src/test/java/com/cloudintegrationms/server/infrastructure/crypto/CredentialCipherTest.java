@@ -0,0 +1,72 @@
+package com.cloudintegrationms.server.infrastructure.crypto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CredentialCipherTest {
+
+    @TempDir
+    Path keyDir;
+
+    @Test
+    void encryptsUnderRotatingDataKeysAndUnwrapsEachKeyOnce() {
+        CountingKeyProvider keyProvider = new CountingKeyProvider(new LocalFileDataKeyProvider(keyDir.resolve("master.key"), true));
+        CredentialCipher writer = new CredentialCipher(keyProvider, Duration.ofHours(1), 2, 100, Duration.ofHours(1),
+                new SimpleMeterRegistry());
+
+        String first = writer.encrypt("secret_token", "notion:user-1");
+        String second = writer.encrypt("secret_token", "notion:user-1");
+        String rotated = writer.encrypt("secret_token", "notion:user-1");
+
+        assertThat(first).startsWith(CredentialCipher.PREFIX).isNotEqualTo(second);
+        assertThat(keyReference(first)).isEqualTo(keyReference(second)).isNotEqualTo(keyReference(rotated));
+        assertThat(keyProvider.generated).hasValue(2);
+
+        // Otra instancia, como tras un reinicio, desenvuelve cada clave de datos una sola vez
+        CountingKeyProvider readerKeys = new CountingKeyProvider(new LocalFileDataKeyProvider(keyDir.resolve("master.key"), true));
+        CredentialCipher reader = new CredentialCipher(readerKeys, Duration.ofHours(1), 2, 100, Duration.ofHours(1),
+                new SimpleMeterRegistry());
+        for (String stored : new String[]{first, second, rotated, first}) {
+            assertThat(reader.decrypt(stored, "notion:user-1")).isEqualTo("secret_token");
+        }
+        assertThat(readerKeys.unwrapped).hasValue(2);
+
+        assertThat(reader.decrypt("legacy_plaintext", "notion:user-1")).isEqualTo("legacy_plaintext");
+        assertThatThrownBy(() -> reader.decrypt(first, "notion:user-2")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static String keyReference(String stored) {
+        return stored.substring(0, stored.lastIndexOf(':'));
+    }
+
+    private static class CountingKeyProvider implements DataKeyProvider {
+
+        private final DataKeyProvider delegate;
+        private final AtomicInteger generated = new AtomicInteger();
+        private final AtomicInteger unwrapped = new AtomicInteger();
+
+        CountingKeyProvider(DataKeyProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public DataKey generateDataKey() {
+            generated.incrementAndGet();
+            return delegate.generateDataKey();
+        }
+
+        @Override
+        public byte[] unwrapDataKey(String masterKeyId, byte[] wrappedKey) {
+            unwrapped.incrementAndGet();
+            return delegate.unwrapDataKey(masterKeyId, wrappedKey);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cloudintegrationms.server.infrastructure.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class LocalFileDataKeyProviderTest {
+
+    @TempDir
+    Path keyDir;
+
+    @Test
+    void failsFastWhenTheKeyFileIsMissingUnlessCreationIsAllowed() {
+        Path keyFile = keyDir.resolve("keys/master.key");
+
+        assertThatThrownBy(() -> new LocalFileDataKeyProvider(keyFile, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("create-if-missing");
+        assertThat(keyFile).doesNotExist();
+        assertThatThrownBy(() -> new LocalFileDataKeyProvider(" ", true))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("key-file");
+    }
+
+    @Test
+    void createsTheKeyFileOwnerOnlyAndReusesItAfterwards() throws Exception {
+        assumeTrue(keyDir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path keyFile = keyDir.resolve("keys/master.key");
+
+        DataKeyProvider.DataKey dataKey = new LocalFileDataKeyProvider(keyFile, true).generateDataKey();
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(keyFile))).isEqualTo("rw-------");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(keyFile.getParent()))).isEqualTo("rwx------");
+        try (var files = Files.list(keyFile.getParent())) {
+            assertThat(files).containsExactly(keyFile);
+        }
+        // Una instancia posterior lee el mismo fichero en lugar de generar otra clave
+        assertThat(new LocalFileDataKeyProvider(keyFile, false).unwrapDataKey(dataKey.masterKeyId(), dataKey.wrapped()))
+                .isEqualTo(dataKey.plaintext());
+    }
+}
@@ -0,0 +1,145 @@
+package com.cloudintegrationms.server.infrastructure.persistence;
+
+import com.cloudintegrationms.server.domain.model.CloudIntegration;
+import com.cloudintegrationms.server.infrastructure.cache.CloudIntegrationCredentialCache;
+import com.cloudintegrationms.server.infrastructure.crypto.CredentialCipher;
+import com.cloudintegrationms.server.infrastructure.crypto.LocalFileDataKeyProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo entidad-dominio sobre el conjunto de integraciones de un usuario grande y búsqueda de la credencial
+ * activa que hacen los controladores antes de cada llamada a un proveedor, con la caché caliente y tras una
+ * invalidación. El repositorio es un stub en memoria, así que solo se mide el coste propio del adaptador.
+ * Se ejecuta con {@code mvn -Pbenchmark test -Dbenchmark.include=CloudIntegrationAdapterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CloudIntegrationAdapterBenchmark {
+
+    private static final String PROVIDER = "notion";
+
+    @Param({"100", "5000"})
+    private int integrations;
+
+    private Path keyDir;
+    private CloudIntegrationPersistenceAdapter adapter;
+    private CloudIntegrationCredentialCache credentialCache;
+    private List<CloudIntegration> domains;
+    private List<CloudIntegrationEntity> entities;
+    private final Map<String, String> storedByUser = new HashMap<>();
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        keyDir = Files.createTempDirectory("cloud-integration-adapter-benchmark");
+        CredentialCipher cipher = new CredentialCipher(new LocalFileDataKeyProvider(keyDir.resolve("master.key").toString(), true),
+                Duration.ofHours(24), Long.MAX_VALUE, 1000, Duration.ofHours(1), new SimpleMeterRegistry());
+        credentialCache = new CloudIntegrationCredentialCache(integrations * 2L, Duration.ofHours(1), new SimpleMeterRegistry());
+        CloudIntegrationRepository repository = (CloudIntegrationRepository) Proxy.newProxyInstance(
+                CloudIntegrationRepository.class.getClassLoader(), new Class<?>[]{CloudIntegrationRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findActiveCredentials")) {
+                        return List.of(storedByUser.get((String) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        adapter = new CloudIntegrationPersistenceAdapter(repository, credentialCache, cipher, null, null, null);
+
+        domains = new ArrayList<>(integrations);
+        entities = new ArrayList<>(integrations);
+        for (int i = 0; i < integrations; i++) {
+            CloudIntegration domain = CloudIntegration.builder()
+                    .id("integration-" + i)
+                    .userId("user-" + i)
+                    .provider(PROVIDER)
+                    .credentials("secret_" + "x".repeat(43) + i)
+                    .active(true)
+                    .expiresAt(Instant.parse("2026-10-17T10:00:00Z"))
+                    .build();
+            CloudIntegrationEntity entity = adapter.toEntity(domain);
+            domains.add(domain);
+            entities.add(entity);
+            storedByUser.put(domain.getUserId(), entity.getCredentials());
+        }
+        for (CloudIntegration domain : domains) {
+            adapter.getActiveCredentials(domain.getUserId(), PROVIDER);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(keyDir.resolve("master.key"));
+        Files.deleteIfExists(keyDir);
+    }
+
+    /**
+     * Lectura de todas las integraciones de un usuario sin tocar las credenciales, que se descifran bajo demanda.
+     */
+    @Benchmark
+    public void toDomain(Blackhole blackhole) {
+        for (CloudIntegrationEntity entity : entities) {
+            blackhole.consume(adapter.toDomain(entity));
+        }
+    }
+
+    @Benchmark
+    public void toDomainWithCredentials(Blackhole blackhole) {
+        for (CloudIntegrationEntity entity : entities) {
+            blackhole.consume(adapter.toDomain(entity).getCredentials());
+        }
+    }
+
+    @Benchmark
+    public void toEntity(Blackhole blackhole) {
+        for (CloudIntegration domain : domains) {
+            blackhole.consume(adapter.toEntity(domain));
+        }
+    }
+
+    @Benchmark
+    public Optional<String> activeCredentialsCached() {
+        return adapter.getActiveCredentials(nextUser(), PROVIDER);
+    }
+
+    @Benchmark
+    public Optional<String> activeCredentialsAfterInvalidation() {
+        String userId = nextUser();
+        credentialCache.evict(userId, PROVIDER);
+        return adapter.getActiveCredentials(userId, PROVIDER);
+    }
+
+    private String nextUser() {
+        next = next + 1 == integrations ? 0 : next + 1;
+        return domains.get(next).getUserId();
+    }
+}
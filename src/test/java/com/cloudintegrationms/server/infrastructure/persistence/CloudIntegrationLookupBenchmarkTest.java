@@ -0,0 +1,147 @@
+package com.cloudintegrationms.server.infrastructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara la búsqueda de la credencial activa filtrando en memoria todas las filas del usuario
+ * frente a la proyección indexada, sobre una base de datos embebida. La suite normal solo comprueba filas y
+ * entidades cargadas; la medición de tiempos lleva la etiqueta {@code benchmark}.
+ */
+@DataJpaTest(properties = {
+        "SPRING_APPLICATION_NAME=cloudintegrationms-test",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import=",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CloudIntegrationLookupBenchmarkTest {
+
+    private static final String USER_ID = "bulk-user";
+    private static final int INTEGRATIONS_PER_USER = 500;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private CloudIntegrationRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<CloudIntegrationEntity> entities = new ArrayList<>();
+        for (int i = 0; i < INTEGRATIONS_PER_USER; i++) {
+            CloudIntegrationEntity entity = new CloudIntegrationEntity();
+            entity.setId("integration-" + i);
+            entity.setUserId(USER_ID);
+            entity.setProvider(i == INTEGRATIONS_PER_USER - 1 ? "notion" : "provider-" + (i % 7));
+            entity.setCredentials("secret_" + "x".repeat(200) + i);
+            entity.setActive(i % 3 != 0 || i == INTEGRATIONS_PER_USER - 1);
+            entities.add(entity);
+        }
+        repository.saveAllAndFlush(entities);
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void projectionReadsOneCredentialInsteadOfEveryRow() {
+        statistics.clear();
+        List<CloudIntegrationEntity> rows = repository.findByUserId(USER_ID);
+        entityManager.clear();
+        long legacyRows = statistics.getEntityLoadCount();
+        String legacyCredential = activeNotionCredential(rows);
+
+        statistics.clear();
+        List<String> projected = repository.findActiveCredentials(USER_ID, "notion", Limit.of(1));
+
+        assertThat(projected).containsExactly(legacyCredential).doesNotContainNull();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(legacyRows).isEqualTo(INTEGRATIONS_PER_USER);
+    }
+
+    /**
+     * Medición de ambas búsquedas; solo se ejecuta con {@code mvn -Pbenchmark test}.
+     */
+    @Test
+    @Tag("benchmark")
+    void projectionIsCheaperThanFilteringEveryRow() {
+        statistics.clear();
+        long legacyBytes = 0;
+        long legacyStart = System.nanoTime();
+        String legacyCredential = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<CloudIntegrationEntity> rows = repository.findByUserId(USER_ID);
+            entityManager.clear();
+            legacyBytes += rows.stream().mapToLong(CloudIntegrationLookupBenchmarkTest::rowBytes).sum();
+            legacyCredential = activeNotionCredential(rows);
+        }
+        long legacyNanos = System.nanoTime() - legacyStart;
+        long legacyRows = statistics.getEntityLoadCount();
+
+        statistics.clear();
+        long projectionBytes = 0;
+        long projectionRows = 0;
+        long projectionStart = System.nanoTime();
+        String projectedCredential = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            List<String> rows = repository.findActiveCredentials(USER_ID, "notion", Limit.of(1));
+            projectionRows += rows.size();
+            projectionBytes += rows.stream().mapToLong(String::length).sum();
+            projectedCredential = rows.stream().findFirst().orElse(null);
+        }
+        long projectionNanos = System.nanoTime() - projectionStart;
+
+        System.out.printf("findByUserId + filtro: %d filas, %d bytes, %.1f us/consulta%n",
+                legacyRows / ITERATIONS, legacyBytes / ITERATIONS, legacyNanos / 1_000.0 / ITERATIONS);
+        System.out.printf("findActiveCredentials: %d filas, %d bytes, %.1f us/consulta%n",
+                projectionRows / ITERATIONS, projectionBytes / ITERATIONS, projectionNanos / 1_000.0 / ITERATIONS);
+
+        assertThat(projectedCredential).isEqualTo(legacyCredential).isNotNull();
+        assertThat(projectionBytes * 100).isLessThan(legacyBytes);
+    }
+
+    @Test
+    void existenceCheckNeverMaterializesEntities() {
+        statistics.clear();
+
+        assertThat(repository.existsByUserIdAndProviderAndActiveTrue(USER_ID, "notion")).isTrue();
+        assertThat(repository.existsByUserIdAndProviderAndActiveTrue(USER_ID, "dropbox")).isFalse();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private static String activeNotionCredential(List<CloudIntegrationEntity> rows) {
+        return rows.stream()
+                .filter(row -> "notion".equals(row.getProvider()) && row.isActive())
+                .map(CloudIntegrationEntity::getCredentials)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static long rowBytes(CloudIntegrationEntity entity) {
+        return Objects.toString(entity.getId(), "").length()
+                + Objects.toString(entity.getUserId(), "").length()
+                + Objects.toString(entity.getProvider(), "").length()
+                + Objects.toString(entity.getCredentials(), "").length()
+                + 1;
+    }
+}
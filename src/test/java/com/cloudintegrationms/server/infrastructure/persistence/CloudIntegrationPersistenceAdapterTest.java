@@ -0,0 +1,235 @@
+package com.cloudintegrationms.server.infrastructure.persistence;
+
+import com.cloudintegrationms.server.domain.model.CloudIntegration;
+import com.cloudintegrationms.server.domain.model.CloudIntegrationBatchResult;
+import com.cloudintegrationms.server.domain.model.CloudIntegrationPage;
+import com.cloudintegrationms.server.infrastructure.cache.CloudIntegrationCredentialCache;
+import com.cloudintegrationms.server.infrastructure.crypto.CredentialCipher;
+import com.cloudintegrationms.server.infrastructure.crypto.LocalFileDataKeyProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "SPRING_APPLICATION_NAME=cloudintegrationms-test",
+        "spring.cloud.config.enabled=false",
+        "spring.config.import=",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "cloud-integration.crypto.local.key-file=${java.io.tmpdir}/cloudintegrationms-test/credentials-master.key",
+        "cloud-integration.crypto.local.create-if-missing=true"
+})
+@Import({CloudIntegrationPersistenceAdapter.class, CloudIntegrationCredentialCache.class,
+        CredentialCipher.class, LocalFileDataKeyProvider.class,
+        CloudIntegrationPersistenceAdapterTest.MetricsConfiguration.class})
+class CloudIntegrationPersistenceAdapterTest {
+
+    @Autowired
+    private CloudIntegrationPersistenceAdapter adapter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchCreateInsertsWithoutPerRowSelects() {
+        List<CloudIntegration> integrations = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            integrations.add(integration("batch-" + i, "user-" + (i % 10), "notion"));
+        }
+        integrations.add(integration("batch-0", "user-0", "notion"));
+        integrations.add(integration("invalid", null, "notion"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<CloudIntegrationBatchResult> results = adapter.createIntegrations(integrations);
+        entityManager.flush();
+
+        assertThat(results).hasSize(252);
+        assertThat(results.subList(0, 250)).allMatch(r -> r.getStatus() == CloudIntegrationBatchResult.Status.CREATED);
+        assertThat(results.get(250).getStatus()).isEqualTo(CloudIntegrationBatchResult.Status.CONFLICT);
+        assertThat(results.get(251).getStatus()).isEqualTo(CloudIntegrationBatchResult.Status.INVALID);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(250);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        // Un select de ids existentes más los inserts agrupados en lotes de 100
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void batchUpdateAndDeleteReportPerItemResults() {
+        adapter.createIntegrations(List.of(
+                integration("a", "user-1", "notion"),
+                integration("b", "user-1", "notion")));
+        entityManager.flush();
+        entityManager.clear();
+
+        CloudIntegration update = integration("a", "user-1", "notion");
+        update.setActive(false);
+        List<CloudIntegrationBatchResult> updated = adapter.updateIntegrations(List.of(update, integration("missing", "user-1", "notion")));
+        List<CloudIntegrationBatchResult> deleted = adapter.deleteIntegrations(List.of("b", "missing"));
+        entityManager.flush();
+
+        assertThat(updated).extracting(CloudIntegrationBatchResult::getStatus)
+                .containsExactly(CloudIntegrationBatchResult.Status.UPDATED, CloudIntegrationBatchResult.Status.NOT_FOUND);
+        assertThat(deleted).extracting(CloudIntegrationBatchResult::getStatus)
+                .containsExactly(CloudIntegrationBatchResult.Status.DELETED, CloudIntegrationBatchResult.Status.NOT_FOUND);
+        assertThat(adapter.getUserIntegrations("user-1"))
+                .singleElement()
+                .satisfies(integration -> assertThat(integration.isActive()).isFalse());
+    }
+
+    @Test
+    void keysetPagesAndStreamCoverEveryIntegrationOnce() {
+        List<CloudIntegration> integrations = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            integrations.add(integration(String.format("page-%02d", i), "paged-user", "notion"));
+        }
+        adapter.createIntegrations(integrations);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> pagedIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            CloudIntegrationPage page = adapter.getUserIntegrationsPage("paged-user", cursor, 10);
+            page.getItems().forEach(integration -> pagedIds.add(integration.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<String> streamedIds = new ArrayList<>();
+        adapter.streamUserIntegrations("paged-user", integration -> streamedIds.add(integration.getId()));
+
+        assertThat(pagedIds).hasSize(25).isSorted().doesNotHaveDuplicates();
+        assertThat(streamedIds).isEqualTo(pagedIds);
+    }
+
+    @Test
+    void expiringIntegrationsArePagedInExpiryOrder() {
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+        List<CloudIntegration> integrations = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            CloudIntegration integration = integration(String.format("exp-%02d", i), "user-" + i, "google-drive");
+            // Pares de integraciones con la misma caducidad para ejercitar el desempate por id
+            integration.setExpiresAt(now.plusSeconds(60L * (i / 2)));
+            integrations.add(integration);
+        }
+        integrations.get(0).setActive(false);
+        integrations.add(integration("no-expiry", "user-x", "google-drive"));
+        adapter.createIntegrations(integrations);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> expiringIds = new ArrayList<>();
+        CloudIntegration after = null;
+        List<CloudIntegration> page;
+        do {
+            page = adapter.getExpiringIntegrations("google-drive", now.plusSeconds(60 * 4), after, 3);
+            page.forEach(integration -> expiringIds.add(integration.getId()));
+            after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == 3);
+
+        assertThat(expiringIds).containsExactly("exp-01", "exp-02", "exp-03", "exp-04", "exp-05", "exp-06", "exp-07");
+    }
+
+    @Test
+    void refreshClaimIsExclusiveAndFailuresBackOffUntilNewCredentialsAreSaved() {
+        CloudIntegration integration = integration("claimed", "claim-user", "google-drive");
+        integration.setExpiresAt(Instant.now());
+        adapter.createIntegration(integration);
+        entityManager.flush();
+        entityManager.clear();
+        Instant before = Instant.now().plusSeconds(600);
+
+        assertThat(adapter.claimRefresh("claimed", before, Duration.ofMinutes(5))).isTrue();
+        assertThat(adapter.claimRefresh("claimed", before, Duration.ofMinutes(5))).isFalse();
+        assertThat(adapter.getExpiringIntegrations("google-drive", before, null, 10)).isEmpty();
+
+        Instant firstRetry = adapter.recordRefreshFailure("claimed", Duration.ofMinutes(1), Duration.ofMinutes(3));
+        Instant secondRetry = adapter.recordRefreshFailure("claimed", Duration.ofMinutes(1), Duration.ofMinutes(3));
+        Instant cappedRetry = adapter.recordRefreshFailure("claimed", Duration.ofMinutes(1), Duration.ofMinutes(3));
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(Duration.between(Instant.now(), firstRetry)).isLessThanOrEqualTo(Duration.ofMinutes(1));
+        assertThat(Duration.between(Instant.now(), secondRetry)).isGreaterThan(Duration.ofMinutes(1));
+        assertThat(Duration.between(Instant.now(), cappedRetry)).isLessThanOrEqualTo(Duration.ofMinutes(3));
+        assertThat(entityManager.find(CloudIntegrationEntity.class, "claimed").getRefreshFailures()).isEqualTo(3);
+        assertThat(adapter.claimRefresh("claimed", before, Duration.ofMinutes(5))).isFalse();
+
+        // Guardar credenciales nuevas libera la reserva y pone a cero los fallos
+        adapter.updateIntegration(adapter.getIntegration("claimed"));
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(entityManager.find(CloudIntegrationEntity.class, "claimed").getRefreshFailures()).isZero();
+        assertThat(adapter.getExpiringIntegrations("google-drive", before, null, 10))
+                .extracting(CloudIntegration::getId).containsExactly("claimed");
+
+        // La actualización por lotes también
+        assertThat(adapter.claimRefresh("claimed", before, Duration.ofMinutes(5))).isTrue();
+        adapter.recordRefreshFailure("claimed", Duration.ofMinutes(1), Duration.ofMinutes(3));
+        entityManager.flush();
+        entityManager.clear();
+        adapter.updateIntegrations(List.of(adapter.getIntegration("claimed")));
+        entityManager.flush();
+        entityManager.clear();
+        CloudIntegrationEntity updated = entityManager.find(CloudIntegrationEntity.class, "claimed");
+        assertThat(updated.getRefreshFailures()).isZero();
+        assertThat(updated.getRefreshClaimedUntil()).isNull();
+
+        // Una instancia que leyó la fila antes de que se renovara ya no puede reservarla
+        CloudIntegration renewed = adapter.getIntegration("claimed");
+        renewed.setExpiresAt(Instant.now().plus(Duration.ofHours(1)));
+        adapter.updateIntegration(renewed);
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(adapter.claimRefresh("claimed", before, Duration.ofMinutes(5))).isFalse();
+    }
+
+    @Test
+    void credentialsAreEncryptedAtRestAndDecryptedOnUse() {
+        adapter.createIntegration(integration("enc", "enc-user", "notion"));
+        entityManager.flush();
+        entityManager.clear();
+
+        String stored = entityManager.find(CloudIntegrationEntity.class, "enc").getCredentials();
+        assertThat(stored).startsWith("enc:v1:").doesNotContain("secret_enc");
+        assertThat(adapter.getActiveCredentials("enc-user", "notion")).contains("secret_enc");
+        assertThat(adapter.getUserIntegrations("enc-user"))
+                .singleElement()
+                .satisfies(integration -> assertThat(integration.getCredentials()).isEqualTo("secret_enc"));
+    }
+
+    private static CloudIntegration integration(String id, String userId, String provider) {
+        return CloudIntegration.builder()
+                .id(id)
+                .userId(userId)
+                .provider(provider)
+                .credentials("secret_" + id)
+                .active(true)
+                .build();
+    }
+
+    @TestConfiguration
+    static class MetricsConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}